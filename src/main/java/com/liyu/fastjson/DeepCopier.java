@@ -0,0 +1,220 @@
+package com.liyu.fastjson;
+
+import com.liyu.fastjson.support.CompactList;
+import com.liyu.fastjson.support.CompactMap;
+import com.liyu.fastjson.support.TypeUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * {@link JSONObject#deepClone(boolean)}/{@link JSONArray#deepClone(boolean)} 及 {@code freeze()} 的实现。
+ * <p>
+ * 直接读取容器的内部存储，不会触发写时复制。并行模式下，元素个数不小于 {@link #PARALLEL_THRESHOLD}
+ * 的数组按区间拆分为子任务，对象中同样规模的嵌套容器各自作为子任务复制，其余部分在当前任务中顺序复制。
+ * </p>
+ * <p>
+ * 冻结模式下副本中的每个容器都标记为冻结，已冻结的子树不可变，直接复用而不复制。
+ * 视图（{@code JSONObject.wrap}）中的普通 Map/List 同样复制为 {@link JSONObject}/{@link JSONArray}。
+ * 冻结时不可变标量（见 {@link TypeUtils#isImmutableScalar(Object)}）以外的值按其序列化结果转换为 JSON 值，
+ * 使冻结的树中不再引用调用方可修改的对象。
+ * </p>
+ */
+final class DeepCopier {
+
+    /**
+     * 并行复制时单个任务顺序处理的最大元素个数
+     */
+    static final int PARALLEL_THRESHOLD = 1024;
+
+    private DeepCopier() {
+    }
+
+    /**
+     * 顺序深拷贝。
+     *
+     * @param value 任意值，非容器原样返回
+     * @return 副本
+     */
+    static Object copy(Object value) {
+        return copy(value, false, false);
+    }
+
+    /**
+     * 使用 ForkJoin 公共池深拷贝。
+     *
+     * @param value 任意值，非容器原样返回
+     * @return 副本
+     */
+    static Object parallelCopy(Object value) {
+        if (!(value instanceof Map) && !(value instanceof List)) {
+            return value;
+        }
+        return ForkJoinPool.commonPool().invoke(new CopyTask(value, false));
+    }
+
+    /**
+     * 顺序复制为冻结的副本。
+     *
+     * @param value 任意值，非容器与已冻结的容器原样返回
+     * @return 冻结的副本
+     */
+    static Object freeze(Object value) {
+        return copy(value, false, true);
+    }
+
+    private static Object copy(Object value, boolean parallel, boolean freeze) {
+        if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            return freeze && object.isFrozen() ? object : copyObject(object, parallel, freeze);
+        }
+        if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            return freeze && array.isFrozen() ? array : copyArray(array, parallel, freeze);
+        }
+        if (value instanceof Map || value instanceof List) {
+            // 视图中尚未包装的普通集合
+            return copy(JSONObject.wrapNested(value, false), parallel, freeze);
+        }
+        if (freeze && !TypeUtils.isImmutableScalar(value)) {
+            // Java Bean、日期、数组、Set 等可变的值按序列化结果转换为 JSON 值，之后不再受原对象影响
+            return copy(JSON.toJSON(value), parallel, true);
+        }
+        return value;
+    }
+
+    private static JSONObject copyObject(JSONObject source, boolean parallel, boolean freeze) {
+        Map<String, Object> map = source.storage();
+        int size = map.size();
+        boolean ordered = !(map instanceof CompactMap) || ((CompactMap) map).isOrdered();
+        JSONObject copy = new JSONObject(size, ordered);
+        if (!parallel) {
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                copy.put(entry.getKey(), copy(entry.getValue(), false, freeze));
+            }
+            if (freeze) {
+                copy.markFrozen();
+            }
+            return copy;
+        }
+        // 先派生较大子容器的任务，其余字段顺序复制，最后按原顺序写入
+        String[] keys = new String[size];
+        Object[] values = new Object[size];
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[size];
+        int i = 0;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            keys[i] = entry.getKey();
+            if (weight(value) >= PARALLEL_THRESHOLD) {
+                tasks[i] = new CopyTask(value, freeze).fork();
+            } else {
+                values[i] = copy(value, true, freeze);
+            }
+            i++;
+        }
+        for (i = 0; i < size; i++) {
+            copy.put(keys[i], tasks[i] != null ? tasks[i].join() : values[i]);
+        }
+        if (freeze) {
+            copy.markFrozen();
+        }
+        return copy;
+    }
+
+    private static JSONArray copyArray(JSONArray source, boolean parallel, boolean freeze) {
+        List<Object> list = source.storage();
+        JSONArray copy;
+        if (list instanceof CompactList && ((CompactList) list).getStorage() != CompactList.BOXED) {
+            // 数值存储中没有嵌套容器，复制基本类型数组即可
+            copy = JSONArray.wrapInnerList(((CompactList) list).copy());
+        } else {
+            int size = list.size();
+            Object[] values = new Object[size];
+            if (parallel && size >= PARALLEL_THRESHOLD) {
+                new RangeTask(list, values, 0, size, freeze).invoke();
+            } else {
+                for (int i = 0; i < size; i++) {
+                    values[i] = copy(list.get(i), parallel, freeze);
+                }
+            }
+            copy = new JSONArray(size);
+            for (Object value : values) {
+                copy.add(value);
+            }
+        }
+        if (freeze) {
+            copy.markFrozen();
+        }
+        return copy;
+    }
+
+    private static int weight(Object value) {
+        if (value instanceof Map) {
+            return ((Map<?, ?>) value).size();
+        }
+        if (value instanceof List) {
+            return ((List<?>) value).size();
+        }
+        return 0;
+    }
+
+    /**
+     * 复制单个容器
+     */
+    private static final class CopyTask extends RecursiveTask<Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object source;
+        private final boolean freeze;
+
+        CopyTask(Object source, boolean freeze) {
+            this.source = source;
+            this.freeze = freeze;
+        }
+
+        @Override
+        protected Object compute() {
+            return copy(source, true, freeze);
+        }
+    }
+
+    /**
+     * 复制数组的 {@code [from, to)} 区间，结果写入 {@code target} 的对应位置
+     */
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Object> source;
+        private final Object[] target;
+        private final int from;
+        private final int to;
+        private final boolean freeze;
+
+        RangeTask(List<Object> source, Object[] target, int from, int to, boolean freeze) {
+            this.source = source;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.freeze = freeze;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    target[i] = copy(source.get(i), true, freeze);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(source, target, from, mid, freeze),
+                    new RangeTask(source, target, mid, to, freeze));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.liyu.fastjson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.liyu.fastjson.support.CompactList;
+import com.liyu.fastjson.support.CompactMap;
+import com.liyu.fastjson.support.JacksonSupport;
+import com.liyu.fastjson.support.SerializedForm;
+import com.liyu.fastjson.support.TypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 启用 {@link JSONObject#setIncrementalSerialization(boolean)} 后使用的增量序列化实现。
+ * <p>
+ * 每个容器缓存自身这一层的 JSON 字节（{@link Level}）：嵌套的对象/数组在字节中只占一个位置，
+ * 写出时递归拼接子容器的缓存。Java Bean、日期、数组等可能被调用方修改的值同样只占一个位置，每次写出时重新生成。容器被修改（包括经 {@code entrySet}、迭代器等视图写入）后丢弃自身的缓存，
+ * 因此再次序列化时只重新生成被修改的各层，其余子树直接复制缓存的字节，且各层字节只保存一份。
+ * </p>
+ * <p>
+ * 只用于不带序列化特性的输出，结果与 {@link JSON#toJSONBytes(Object)} 逐字节相同。
+ * 使用自定义存储的容器（如列式数组）、调用方集合的视图（调用方可能直接修改源集合）与交出过内部存储的容器
+ * （{@code getInnerMap}、{@code subList}）不缓存，每次整体生成。
+ * </p>
+ */
+final class IncrementalWriter {
+
+    private static final int[] NO_HOLES = {};
+
+    private static final Object[] NO_CHILDREN = {};
+
+    private IncrementalWriter() {
+    }
+
+    /**
+     * 增量序列化为 UTF-8 字节。
+     *
+     * @param root {@link JSONObject} 或 {@link JSONArray}
+     * @return JSON 字节
+     * @throws IOException 写出失败时抛出
+     */
+    static byte[] toBytes(Object root) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(root, out, JacksonSupport.writer(0));
+        return out.toByteArray();
+    }
+
+    private static void write(Object value, ByteArrayOutputStream out, ObjectWriter writer) throws IOException {
+        SerializedForm form = value instanceof JSONObject
+                ? ((JSONObject) value).frozenForm() : ((JSONArray) value).frozenForm();
+        if (form != null) {
+            out.write(form.bytes(value));
+            return;
+        }
+        Level level = value instanceof JSONObject
+                ? ((JSONObject) value).serializedLevel() : ((JSONArray) value).serializedLevel();
+        if (level == null) {
+            level = build(value, writer);
+            if (level == null) {
+                out.write(writer.writeValueAsBytes(value));
+                return;
+            }
+            if (value instanceof JSONObject) {
+                ((JSONObject) value).serializedLevel(level);
+            } else {
+                ((JSONArray) value).serializedLevel(level);
+            }
+        }
+        int position = 0;
+        for (int i = 0; i < level.holes.length; i++) {
+            out.write(level.bytes, position, level.holes[i] - position);
+            Object child = level.children[i];
+            if (child instanceof JSONObject || child instanceof JSONArray) {
+                write(child, out, writer);
+            } else {
+                // 可变的标量每次重新生成
+                out.write(writer.writeValueAsBytes(child));
+            }
+            position = level.holes[i];
+        }
+        out.write(level.bytes, position, level.bytes.length - position);
+    }
+
+    /**
+     * 生成容器自身这一层的字节；无法缓存时返回 {@code null}
+     */
+    private static Level build(Object value, ObjectWriter writer) throws IOException {
+        LevelView view;
+        if (value instanceof JSONObject) {
+            if (!((JSONObject) value).isCacheable()) {
+                return null;
+            }
+            Map<String, Object> map = ((JSONObject) value).storage();
+            if (map.getClass() != CompactMap.class && map.getClass() != LinkedHashMap.class
+                    || map.containsKey(null)) {
+                return null;
+            }
+            view = new LevelView(map, null);
+        } else {
+            if (!((JSONArray) value).isCacheable()) {
+                return null;
+            }
+            List<Object> list = ((JSONArray) value).storage();
+            if (!(list instanceof CompactList)) {
+                return null;
+            }
+            view = new LevelView(null, list);
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        view.buffer = buffer;
+        try (JsonGenerator gen = writer.createGenerator(buffer)) {
+            writer.writeValue(gen, view);
+        }
+        return new Level(buffer.toByteArray(), Arrays.copyOf(view.holes, view.count),
+                Arrays.copyOf(view.children, view.count));
+    }
+
+    /**
+     * 容器自身这一层的缓存：{@code bytes} 中 {@code holes[i]} 处应插入 {@code children[i]} 的 JSON
+     */
+    static final class Level {
+
+        final byte[] bytes;
+        final int[] holes;
+        final Object[] children;
+
+        Level(byte[] bytes, int[] holes, Object[] children) {
+            this.bytes = bytes;
+            this.holes = holes;
+            this.children = children;
+        }
+    }
+
+    /**
+     * 只写出一层的视图：标量按常规方式序列化，嵌套容器只记录位置
+     */
+    private static final class LevelView implements JsonSerializable {
+
+        private final Map<String, Object> map;
+        private final List<Object> list;
+
+        private ByteArrayOutputStream buffer;
+        private int[] holes = NO_HOLES;
+        private Object[] children = NO_CHILDREN;
+        private int count;
+
+        LevelView(Map<String, Object> map, List<Object> list) {
+            this.map = map;
+            this.list = list;
+        }
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (map != null) {
+                gen.writeStartObject();
+                for (Map.Entry<String, Object> entry : map.entrySet()) {
+                    Object value = entry.getValue();
+                    // 与默认的 NON_NULL 包含规则一致，跳过值为 null 的字段
+                    if (value != null) {
+                        gen.writeFieldName(entry.getKey());
+                        writeValue(value, gen, provider);
+                    }
+                }
+                gen.writeEndObject();
+                return;
+            }
+            gen.writeStartArray();
+            for (int i = 0, n = list.size(); i < n; i++) {
+                writeValue(list.get(i), gen, provider);
+            }
+            gen.writeEndArray();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer)
+                throws IOException {
+            serialize(gen, provider);
+        }
+
+        private void writeValue(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (TypeUtils.isImmutableScalar(value)) {
+                provider.defaultSerializeValue(value, gen);
+                return;
+            }
+            // 写出分隔符后留空，子容器或可变标量（Java Bean、日期、数组等）的字节在拼接时插入到此处
+            gen.writeRawValue("");
+            gen.flush();
+            if (count == holes.length) {
+                int capacity = Math.max(4, count << 1);
+                holes = Arrays.copyOf(holes, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            holes[count] = buffer.size();
+            children[count] = value;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.liyu.fastjson;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 包装 {@link JSONObject}/{@link JSONArray} 交出的可修改视图（{@code entrySet}、迭代器等）。
+ * <p>
+ * 读取直接委托给底层集合；经视图写入（{@code remove}、{@code Entry.setValue}、{@code ListIterator.set} 等）前
+ * 先调用 {@code onWrite}，使容器的增量序列化缓存失效。只读遍历不会影响缓存。
+ * </p>
+ */
+final class InvalidatingViews {
+
+    private InvalidatingViews() {
+    }
+
+    /**
+     * 包装 {@code keySet}。
+     *
+     * @param set     底层集合
+     * @param onWrite 写入前的回调
+     * @return 视图
+     */
+    static <E> Set<E> set(Set<E> set, Runnable onWrite) {
+        return new ViewSet<>(set, onWrite, false);
+    }
+
+    /**
+     * 包装 {@code entrySet}，取出的 {@link Map.Entry} 的 {@code setValue} 同样会调用回调。
+     *
+     * @param set     底层集合
+     * @param onWrite 写入前的回调
+     * @return 视图
+     */
+    static Set<Map.Entry<String, Object>> entrySet(Set<Map.Entry<String, Object>> set, Runnable onWrite) {
+        return new ViewSet<>(set, onWrite, true);
+    }
+
+    /**
+     * 包装 {@code values}。
+     *
+     * @param values  底层集合
+     * @param onWrite 写入前的回调
+     * @return 视图
+     */
+    static Collection<Object> collection(Collection<Object> values, Runnable onWrite) {
+        return new ViewCollection(values, onWrite);
+    }
+
+    /**
+     * 包装迭代器。
+     *
+     * @param iterator 底层迭代器
+     * @param onWrite  写入前的回调
+     * @return 视图
+     */
+    static <E> Iterator<E> iterator(Iterator<E> iterator, Runnable onWrite) {
+        return new ViewIterator<>(iterator, onWrite, false);
+    }
+
+    /**
+     * 包装列表迭代器。
+     *
+     * @param iterator 底层迭代器
+     * @param onWrite  写入前的回调
+     * @return 视图
+     */
+    static <E> ListIterator<E> listIterator(ListIterator<E> iterator, Runnable onWrite) {
+        return new ViewListIterator<>(iterator, onWrite);
+    }
+
+    private static final class ViewSet<E> extends AbstractSet<E> {
+
+        private final Set<E> set;
+        private final Runnable onWrite;
+        private final boolean entries;
+
+        ViewSet(Set<E> set, Runnable onWrite, boolean entries) {
+            this.set = set;
+            this.onWrite = onWrite;
+            this.entries = entries;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new ViewIterator<>(set.iterator(), onWrite, entries);
+        }
+
+        @Override
+        public int size() {
+            return set.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return set.contains(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            onWrite.run();
+            return set.remove(o);
+        }
+
+        @Override
+        public void clear() {
+            onWrite.run();
+            set.clear();
+        }
+    }
+
+    private static final class ViewCollection extends AbstractCollection<Object> {
+
+        private final Collection<Object> values;
+        private final Runnable onWrite;
+
+        ViewCollection(Collection<Object> values, Runnable onWrite) {
+            this.values = values;
+            this.onWrite = onWrite;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return new ViewIterator<>(values.iterator(), onWrite, false);
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return values.contains(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            onWrite.run();
+            return values.remove(o);
+        }
+
+        @Override
+        public void clear() {
+            onWrite.run();
+            values.clear();
+        }
+    }
+
+    private static final class ViewIterator<E> implements Iterator<E> {
+
+        private final Iterator<E> iterator;
+        private final Runnable onWrite;
+        private final boolean entries;
+
+        ViewIterator(Iterator<E> iterator, Runnable onWrite, boolean entries) {
+            this.iterator = iterator;
+            this.onWrite = onWrite;
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            E next = iterator.next();
+            return entries ? (E) new ViewEntry((Map.Entry<String, Object>) next, onWrite) : next;
+        }
+
+        @Override
+        public void remove() {
+            onWrite.run();
+            iterator.remove();
+        }
+    }
+
+    private static final class ViewListIterator<E> implements ListIterator<E> {
+
+        private final ListIterator<E> iterator;
+        private final Runnable onWrite;
+
+        ViewListIterator(ListIterator<E> iterator, Runnable onWrite) {
+            this.iterator = iterator;
+            this.onWrite = onWrite;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public E next() {
+            return iterator.next();
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return iterator.hasPrevious();
+        }
+
+        @Override
+        public E previous() {
+            return iterator.previous();
+        }
+
+        @Override
+        public int nextIndex() {
+            return iterator.nextIndex();
+        }
+
+        @Override
+        public int previousIndex() {
+            return iterator.previousIndex();
+        }
+
+        @Override
+        public void remove() {
+            onWrite.run();
+            iterator.remove();
+        }
+
+        @Override
+        public void set(E e) {
+            onWrite.run();
+            iterator.set(e);
+        }
+
+        @Override
+        public void add(E e) {
+            onWrite.run();
+            iterator.add(e);
+        }
+    }
+
+    private static final class ViewEntry implements Map.Entry<String, Object> {
+
+        private final Map.Entry<String, Object> entry;
+        private final Runnable onWrite;
+
+        ViewEntry(Map.Entry<String, Object> entry, Runnable onWrite) {
+            this.entry = entry;
+            this.onWrite = onWrite;
+        }
+
+        @Override
+        public String getKey() {
+            return entry.getKey();
+        }
+
+        @Override
+        public Object getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            onWrite.run();
+            return entry.setValue(value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return entry.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return entry.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entry.toString();
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package com.liyu.fastjson;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JavaType;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.liyu.fastjson.parser.Feature;
+import com.liyu.fastjson.parser.ParserConfig;
 import com.liyu.fastjson.serializer.SerializerFeature;
 import com.liyu.fastjson.support.JacksonSupport;
-import com.liyu.fastjson.support.JsonNodeConverter;
+import com.liyu.fastjson.support.JavaTypeCache;
+import com.liyu.fastjson.support.JsonArrayIterator;
+import com.liyu.fastjson.support.JsonLinesReader;
+import com.liyu.fastjson.support.JsonStreamBuilder;
+import com.liyu.fastjson.support.JsonValidator;
+import com.liyu.fastjson.support.LazyValue;
+import com.liyu.fastjson.support.ParallelJsonLinesReader;
+import com.liyu.fastjson.support.SerializedForm;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -21,6 +30,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.function.Consumer;
 
 /**
  * Fastjson 主入口类，提供 JSON 与 Java 对象之间的相互转换。
@@ -75,9 +85,10 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
     public static Locale defaultLocale = Locale.getDefault();
 
     /**
-     * 默认解析特性位掩码
+     * 默认解析特性位掩码，解析 {@code JSONObject}/{@code JSONArray} 时与调用方传入的特性合并。
+     * <p>与 fastjson 一致默认包含 {@link Feature#UseBigDecimal}，清除后小数解析为 {@link Double}。</p>
      */
-    public static int DEFAULT_PARSER_FEATURE = 0;
+    public static int DEFAULT_PARSER_FEATURE = Feature.UseBigDecimal.mask;
 
     /**
      * 默认序列化特性位掩码
@@ -118,44 +129,104 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         if (text == null || text.isEmpty()) {
             return null;
         }
-        try {
-            JsonNode node = JacksonSupport.defaultMapper().readTree(text);
-            if (node.isObject()) {
-                return JsonNodeConverter.toJSONObject(node);
-            }
-            if (node.isArray()) {
-                return JsonNodeConverter.toJSONArray(node);
-            }
-            return JacksonSupport.toJavaValue(node);
+        if (ParserConfig.getGlobalInstance().isLazyObject()) {
+            return parse(text, 0);
+        }
+        try (JsonParser parser = JacksonSupport.defaultMapper().createParser(text)) {
+            return JsonStreamBuilder.read(parser);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
     }
 
     /**
-     * 解析 JSON 文本为 {@link JSONObject}，支持指定解析特性。
+     * 解析 JSON 文本，支持指定解析特性，根据内容返回 {@link JSONObject}、{@link JSONArray} 或基本类型。
+     * <p>
+     * 启用 {@link ParserConfig#setLazyObject(boolean)} 后，返回的对象在读取字段时会修改自身的存储，
+     * 不能不加同步地被多个线程同时读取，见该方法的说明。
+     * </p>
      *
      * @param text     JSON 字符串
      * @param features 解析特性
-     * @return {@link JSONObject}；{@code text} 为 {@code null} 或空时返回 {@code null}
-     * @see #parseObject(String)
+     * @return 解析结果；{@code text} 为 {@code null} 或空时返回 {@code null}
+     * @throws JSONException 格式非法时抛出
      */
     public static Object parse(String text, Feature... features) {
-        return parseObject(text, features);
+        return parse(text, Feature.of(features));
+    }
+
+    /**
+     * 解析 JSON 文本，支持以位掩码形式指定解析特性，根据内容返回 {@link JSONObject}、{@link JSONArray} 或基本类型。
+     * <p>热点调用处可预先计算 {@link Feature#of(Feature...)}，避免每次调用分配可变参数数组。</p>
+     *
+     * @param text     JSON 字符串
+     * @param features 解析特性位掩码
+     * @return 解析结果；{@code text} 为 {@code null} 或空时返回 {@code null}
+     * @throws JSONException 格式非法时抛出
+     */
+    public static Object parse(String text, int features) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        if (ParserConfig.getGlobalInstance().isLazyObject()) {
+            try {
+                return LazyValue.read(text, features);
+            } catch (IOException e) {
+                throw new JSONException(e.getMessage(), e);
+            }
+        }
+        try (JsonParser parser = JacksonSupport.reader(features).createParser(text)) {
+            return JsonStreamBuilder.read(parser, features);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
     }
 
     /**
-     * 解析 JSON 字节数组，使用 UTF-8 编码。
+     * 解析 JSON 字节数组，根据内容返回 {@link JSONObject}、{@link JSONArray} 或基本类型。
+     * <p>字节直接交给 Jackson 字节解析器，按 BOM/首字节自动识别 UTF-8/16/32 编码，不会先解码为字符串。</p>
+     * <p>
+     * 启用 {@link ParserConfig#setLazyObject(boolean)} 后，返回的对象在读取字段时会修改自身的存储，
+     * 不能不加同步地被多个线程同时读取，见该方法的说明。
+     * </p>
      *
      * @param input    JSON 字节数组
      * @param features 解析特性
      * @return 解析结果；{@code input} 为 {@code null} 或空时返回 {@code null}
      */
     public static Object parse(byte[] input, Feature... features) {
-        if (input == null || input.length == 0) {
+        if (input == null) {
             return null;
         }
-        return parse(new String(input, StandardCharsets.UTF_8), features);
+        return parse(input, 0, input.length, features);
+    }
+
+    /**
+     * 解析字节数组中指定区间的 JSON 内容。
+     *
+     * @param input    JSON 字节数组
+     * @param offset   起始下标
+     * @param length   字节长度
+     * @param features 解析特性
+     * @return 解析结果；{@code input} 为 {@code null} 或 {@code length} 为 0 时返回 {@code null}
+     */
+    public static Object parse(byte[] input, int offset, int length, Feature... features) {
+        if (input == null || length == 0) {
+            return null;
+        }
+        if (ParserConfig.getGlobalInstance().isLazyObject()) {
+            try {
+                return LazyValue.read(input, offset, length, Feature.of(features));
+            } catch (IOException e) {
+                throw new JSONException(e.getMessage(), e);
+            }
+        }
+        int featureValues = Feature.of(features);
+        try (JsonParser parser = JacksonSupport.reader(featureValues).createParser(input, offset, length)) {
+            return JsonStreamBuilder.read(parser, featureValues);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
     }
 
     /**
@@ -169,12 +240,11 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         if (text == null || text.isEmpty()) {
             return null;
         }
-        try {
-            JsonNode node = JacksonSupport.defaultMapper().readTree(text);
-            if (!node.isObject()) {
-                throw new JSONException("expect object, but " + node.getNodeType());
-            }
-            return JsonNodeConverter.toJSONObject(node);
+        if (ParserConfig.getGlobalInstance().isLazyObject()) {
+            return parseObject(text, new Feature[0]);
+        }
+        try (JsonParser parser = JacksonSupport.defaultMapper().createParser(text)) {
+            return JsonStreamBuilder.readObject(parser);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
@@ -182,6 +252,10 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
     /**
      * 解析 JSON 字符串为 {@link JSONObject}，支持指定解析特性。
+     * <p>
+     * 启用 {@link ParserConfig#setLazyObject(boolean)} 后，返回的对象在读取字段时会修改自身的存储，
+     * 不能不加同步地被多个线程同时读取，见该方法的说明。
+     * </p>
      *
      * @param text     JSON 对象字符串
      * @param features 解析特性，如 {@link Feature#AllowComment}
@@ -192,13 +266,16 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         if (text == null || text.isEmpty()) {
             return null;
         }
-        try {
-            ObjectMapper mapper = JacksonSupport.copyMapper(features);
-            JsonNode node = mapper.readTree(text);
-            if (!node.isObject()) {
-                throw new JSONException("expect object, but " + node.getNodeType());
+        if (ParserConfig.getGlobalInstance().isLazyObject()) {
+            try {
+                return LazyValue.readObject(text, Feature.of(features));
+            } catch (IOException e) {
+                throw new JSONException(e.getMessage(), e);
             }
-            return JsonNodeConverter.toJSONObject(node);
+        }
+        int featureValues = Feature.of(features);
+        try (JsonParser parser = JacksonSupport.reader(featureValues).createParser(text)) {
+            return JsonStreamBuilder.readObject(parser, featureValues);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
@@ -228,12 +305,25 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
      * @throws JSONException 解析失败时抛出
      */
     public static <T> T parseObject(String text, Class<T> clazz, Feature... features) {
+        return parseObject(text, clazz, Feature.of(features));
+    }
+
+    /**
+     * 解析 JSON 字符串为指定类型的 Java 对象，以位掩码形式指定解析特性。
+     *
+     * @param text     JSON 字符串
+     * @param clazz    目标类型
+     * @param features 解析特性位掩码，见 {@link Feature#of(Feature...)}
+     * @param <T>      目标泛型
+     * @return Java 对象；{@code text} 为 {@code null} 或空时返回 {@code null}
+     * @throws JSONException 解析失败时抛出
+     */
+    public static <T> T parseObject(String text, Class<T> clazz, int features) {
         if (text == null || text.isEmpty()) {
             return null;
         }
         try {
-            ObjectMapper mapper = JacksonSupport.copyMapper(features);
-            return mapper.readValue(text, clazz);
+            return JacksonSupport.reader(features).forType(JavaTypeCache.of(clazz)).readValue(text);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
@@ -261,13 +351,27 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
      * @return Java 对象；{@code text} 为 {@code null} 或空时返回 {@code null}
      */
     public static <T> T parseObject(String text, Type type, Feature... features) {
+        return parseObject(text, type, 0, features);
+    }
+
+    /**
+     * 解析 JSON 字符串为指定 {@link Type} 的对象，特性可同时以位掩码和枚举形式指定。
+     *
+     * @param text          JSON 字符串
+     * @param type          目标类型
+     * @param featureValues 解析特性位掩码
+     * @param features      额外的解析特性
+     * @param <T>           目标泛型
+     * @return Java 对象；{@code text} 为 {@code null} 或空时返回 {@code null}
+     */
+    public static <T> T parseObject(String text, Type type, int featureValues, Feature... features) {
         if (text == null || text.isEmpty()) {
             return null;
         }
         try {
-            ObjectMapper mapper = JacksonSupport.copyMapper(features);
-            JavaType javaType = mapper.getTypeFactory().constructType(type);
-            return mapper.readValue(text, javaType);
+            ObjectReader reader = JacksonSupport.reader(featureValues | Feature.of(features));
+            JavaType javaType = JavaTypeCache.of(type);
+            return reader.forType(javaType).readValue(text);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
@@ -299,7 +403,14 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         if (typeReference == null) {
             throw new JSONException("typeReference is null");
         }
-        return parseObject(text, typeReference.getType(), features);
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        try {
+            return JacksonSupport.reader(features).forType(typeReference.getJavaType()).readValue(text);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
     }
 
     /**
@@ -327,7 +438,11 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         if (bytes == null || bytes.length == 0) {
             return null;
         }
-        return parseObject(new String(bytes, StandardCharsets.UTF_8), clazz, features);
+        try {
+            return JacksonSupport.reader(features).forType(JavaTypeCache.of(clazz)).readValue(bytes);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
     }
 
     /**
@@ -340,10 +455,35 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
      * @return Java 对象；{@code bytes} 为 {@code null} 或空时返回 {@code null}
      */
     public static <T> T parseObject(byte[] bytes, Type type, Feature... features) {
-        if (bytes == null || bytes.length == 0) {
+        if (bytes == null) {
             return null;
         }
-        return parseObject(new String(bytes, StandardCharsets.UTF_8), type, features);
+        return parseObject(bytes, 0, bytes.length, type, features);
+    }
+
+    /**
+     * 解析字节数组中指定区间的 JSON 内容为指定 {@link Type} 的对象。
+     * <p>编码由 Jackson 字节解析器按 BOM/首字节自动识别（UTF-8/16/32）。</p>
+     *
+     * @param bytes    JSON 字节数组
+     * @param offset   起始下标
+     * @param length   字节长度
+     * @param type     目标类型
+     * @param features 解析特性
+     * @param <T>      目标泛型
+     * @return Java 对象；{@code bytes} 为 {@code null} 或 {@code length} 为 0 时返回 {@code null}
+     */
+    public static <T> T parseObject(byte[] bytes, int offset, int length, Type type, Feature... features) {
+        if (bytes == null || length == 0) {
+            return null;
+        }
+        try {
+            ObjectReader reader = JacksonSupport.reader(features);
+            JavaType javaType = JavaTypeCache.of(type);
+            return reader.forType(javaType).readValue(bytes, offset, length);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
     }
 
     /**
@@ -372,8 +512,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             return null;
         }
         try {
-            ObjectMapper mapper = JacksonSupport.copyMapper(features);
-            return mapper.readValue(inputStream, clazz);
+            return JacksonSupport.reader(features).forType(JavaTypeCache.of(clazz)).readValue(inputStream);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
@@ -393,9 +532,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             return null;
         }
         try {
-            ObjectMapper mapper = JacksonSupport.copyMapper(features);
-            JavaType javaType = mapper.getTypeFactory().constructType(type);
-            return mapper.readValue(inputStream, javaType);
+            ObjectReader reader = JacksonSupport.reader(features);
+            JavaType javaType = JavaTypeCache.of(type);
+            return reader.forType(javaType).readValue(inputStream);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
@@ -427,8 +566,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             return null;
         }
         try {
-            ObjectMapper mapper = JacksonSupport.copyMapper(features);
-            return mapper.readValue(reader, clazz);
+            return JacksonSupport.reader(features).forType(JavaTypeCache.of(clazz)).readValue(reader);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
@@ -445,12 +583,8 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         if (text == null || text.isEmpty()) {
             return null;
         }
-        try {
-            JsonNode node = JacksonSupport.defaultMapper().readTree(text);
-            if (!node.isArray()) {
-                throw new JSONException("expect array, but " + node.getNodeType());
-            }
-            return JsonNodeConverter.toJSONArray(node);
+        try (JsonParser parser = JacksonSupport.defaultMapper().createParser(text)) {
+            return JsonStreamBuilder.readArray(parser);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
@@ -468,13 +602,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         if (text == null || text.isEmpty()) {
             return null;
         }
-        try {
-            ObjectMapper mapper = JacksonSupport.copyMapper(features);
-            JsonNode node = mapper.readTree(text);
-            if (!node.isArray()) {
-                throw new JSONException("expect array, but " + node.getNodeType());
-            }
-            return JsonNodeConverter.toJSONArray(node);
+        int featureValues = Feature.of(features);
+        try (JsonParser parser = JacksonSupport.reader(featureValues).createParser(text)) {
+            return JsonStreamBuilder.readArray(parser, featureValues);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
@@ -506,9 +636,9 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             return null;
         }
         try {
-            ObjectMapper mapper = JacksonSupport.copyMapper(features);
-            JavaType javaType = mapper.getTypeFactory().constructCollectionType(List.class, clazz);
-            return mapper.readValue(text, javaType);
+            ObjectReader reader = JacksonSupport.reader(features);
+            JavaType javaType = JavaTypeCache.listOf(clazz);
+            return reader.forType(javaType).readValue(text);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
@@ -523,10 +653,170 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
      * @return 元素列表；{@code bytes} 为 {@code null} 或空时返回 {@code null}
      */
     public static <T> List<T> parseArray(byte[] bytes, Class<T> clazz) {
-        if (bytes == null || bytes.length == 0) {
+        if (bytes == null) {
+            return null;
+        }
+        return parseArray(bytes, 0, bytes.length, clazz);
+    }
+
+    /**
+     * 解析字节数组中指定区间的 JSON 数组为 {@code List<T>}。
+     *
+     * @param bytes    JSON 字节数组
+     * @param offset   起始下标
+     * @param length   字节长度
+     * @param clazz    元素类型
+     * @param features 解析特性
+     * @param <T>      元素泛型
+     * @return 元素列表；{@code bytes} 为 {@code null} 或 {@code length} 为 0 时返回 {@code null}
+     */
+    public static <T> List<T> parseArray(byte[] bytes, int offset, int length, Class<T> clazz, Feature... features) {
+        if (bytes == null || length == 0) {
+            return null;
+        }
+        try {
+            ObjectReader reader = JacksonSupport.reader(features);
+            JavaType javaType = JavaTypeCache.listOf(clazz);
+            return reader.forType(javaType).readValue(bytes, offset, length);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 逐个读取输入流中顶层 JSON 数组的元素，不把整个数组读入内存。
+     * <p>
+     * 元素类型为 {@link JSONObject}（或 {@link Object}）时返回未绑定的 JSON 元素，供无类型的调用方使用。
+     * 返回的迭代器读完或出错时自动关闭输入流，提前结束时需调用 {@link JsonArrayIterator#close()}；
+     * 也可通过 {@link JsonArrayIterator#stream()} 以流的形式处理。
+     * </p>
+     *
+     * @param inputStream 输入流
+     * @param clazz       元素类型
+     * @param features    解析特性
+     * @param <T>         元素泛型
+     * @return 元素迭代器；{@code inputStream} 为 {@code null} 时返回 {@code null}
+     */
+    public static <T> JsonArrayIterator<T> iterateArray(InputStream inputStream, Class<T> clazz, Feature... features) {
+        if (inputStream == null) {
             return null;
         }
-        return parseArray(new String(bytes, StandardCharsets.UTF_8), clazz);
+        int featureValues = Feature.of(features);
+        ObjectReader reader = JacksonSupport.reader(featureValues);
+        try {
+            return new JsonArrayIterator<>(reader.createParser(inputStream), clazz, reader, featureValues);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 逐个读取字符输入流中顶层 JSON 数组的元素，规则同 {@link #iterateArray(InputStream, Class, Feature...)}。
+     *
+     * @param reader   字符输入流
+     * @param clazz    元素类型
+     * @param features 解析特性
+     * @param <T>      元素泛型
+     * @return 元素迭代器；{@code reader} 为 {@code null} 时返回 {@code null}
+     */
+    public static <T> JsonArrayIterator<T> iterateArray(Reader reader, Class<T> clazz, Feature... features) {
+        if (reader == null) {
+            return null;
+        }
+        int featureValues = Feature.of(features);
+        ObjectReader objectReader = JacksonSupport.reader(featureValues);
+        try {
+            return new JsonArrayIterator<>(objectReader.createParser(reader), clazz, objectReader, featureValues);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 逐个读取 UTF-8 字节数组中顶层 JSON 数组的元素，规则同 {@link #iterateArray(InputStream, Class, Feature...)}。
+     *
+     * @param bytes    JSON 字节数组
+     * @param clazz    元素类型
+     * @param features 解析特性
+     * @param <T>      元素泛型
+     * @return 元素迭代器；{@code bytes} 为 {@code null} 时返回 {@code null}
+     */
+    public static <T> JsonArrayIterator<T> iterateArray(byte[] bytes, Class<T> clazz, Feature... features) {
+        if (bytes == null) {
+            return null;
+        }
+        int featureValues = Feature.of(features);
+        ObjectReader reader = JacksonSupport.reader(featureValues);
+        try {
+            return new JsonArrayIterator<>(reader.createParser(bytes), clazz, reader, featureValues);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 逐行读取 JSON Lines（NDJSON）输入，每行绑定为一个元素；遇到无法解析的行抛出 {@link JSONException}。
+     * <p>
+     * 所有行共享同一个已解析好的 reader，不会像逐行调用 {@link #parseObject(String, Class)} 那样重复初始化。
+     * 元素类型为 {@link JSONObject}（或 {@link Object}）时返回未绑定的 JSON 元素。
+     * 写出见 {@link JSONLinesWriter}。
+     * </p>
+     *
+     * @param inputStream 输入流
+     * @param clazz       元素类型
+     * @param features    解析特性
+     * @param <T>         元素泛型
+     * @return 逐行读取的迭代器；{@code inputStream} 为 {@code null} 时返回 {@code null}
+     */
+    public static <T> JsonLinesReader<T> readLines(InputStream inputStream, Class<T> clazz, Feature... features) {
+        return readLines(inputStream, clazz, null, features);
+    }
+
+    /**
+     * 逐行读取 JSON Lines（NDJSON）输入，无法解析的行交给 {@code errorHandler} 后跳过。
+     *
+     * @param inputStream  输入流
+     * @param clazz        元素类型
+     * @param errorHandler 无法解析的行的处理器，{@code null} 表示抛出异常
+     * @param features     解析特性
+     * @param <T>          元素泛型
+     * @return 逐行读取的迭代器；{@code inputStream} 为 {@code null} 时返回 {@code null}
+     * @see #readLines(InputStream, Class, Feature...)
+     */
+    public static <T> JsonLinesReader<T> readLines(InputStream inputStream, Class<T> clazz,
+                                                   JsonLinesReader.ErrorHandler errorHandler, Feature... features) {
+        if (inputStream == null) {
+            return null;
+        }
+        int featureValues = Feature.of(features);
+        return new JsonLinesReader<>(inputStream, clazz, JacksonSupport.reader(featureValues), featureValues,
+                errorHandler);
+    }
+
+    /**
+     * 在 {@link java.util.concurrent.ForkJoinPool#commonPool()} 上并行解析 JSON Lines（NDJSON）输入，
+     * 每条记录交给 {@code consumer}，返回前关闭输入流。
+     * <p>
+     * {@code ordered} 为 {@code true} 时记录按输入顺序在调用线程中交付；为 {@code false} 时在工作线程中交付，
+     * consumer 需线程安全。块大小、在途块数、线程池与错误处理见 {@link ParallelJsonLinesReader}。
+     * </p>
+     *
+     * @param inputStream 输入流
+     * @param clazz       元素类型
+     * @param ordered     是否按输入顺序交付
+     * @param consumer    记录消费者
+     * @param features    解析特性
+     * @param <T>         元素泛型
+     * @return 交付的记录数；{@code inputStream} 为 {@code null} 时返回 0
+     */
+    public static <T> long readLinesParallel(InputStream inputStream, Class<T> clazz, boolean ordered,
+                                             Consumer<? super T> consumer, Feature... features) {
+        if (inputStream == null) {
+            return 0;
+        }
+        ParallelJsonLinesReader<T> reader = new ParallelJsonLinesReader<>(clazz, features);
+        reader.setOrdered(ordered);
+        return reader.read(inputStream, consumer);
     }
 
     // ======================== 序列化 ========================
@@ -552,9 +842,16 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         if (object == null) {
             return null;
         }
+        SerializedForm form = frozenForm(object, features);
+        if (form != null) {
+            return form.text(object);
+        }
         try {
+            if (isIncremental(object, features)) {
+                return new String(IncrementalWriter.toBytes(object), StandardCharsets.UTF_8);
+            }
             return JacksonSupport.writer(features).writeValueAsString(object);
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
     }
@@ -572,9 +869,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             return null;
         }
         try {
-            ObjectMapper mapper = JacksonSupport.defaultMapper().copy();
-            mapper.setDateFormat(new java.text.SimpleDateFormat(dateFormat));
-            return JacksonSupport.writer(mapper, features).writeValueAsString(object);
+            return JacksonSupport.writer(dateFormat, SerializerFeature.of(features)).writeValueAsString(object);
         } catch (JsonProcessingException e) {
             throw new JSONException(e.getMessage(), e);
         }
@@ -601,15 +896,23 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         if (object == null) {
             return null;
         }
+        SerializedForm form = frozenForm(object, features);
+        if (form != null) {
+            return form.bytes(object).clone();
+        }
         try {
+            if (isIncremental(object, features)) {
+                return IncrementalWriter.toBytes(object);
+            }
             return JacksonSupport.writer(features).writeValueAsBytes(object);
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
     }
 
     /**
      * 将 Java 对象序列化为指定字符集的 JSON 字节数组。
+     * <p>序列化结果直接编码写入字节缓冲区，不经过中间字符串。</p>
      *
      * @param object   待序列化对象
      * @param features 序列化特性
@@ -617,8 +920,21 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
      * @return JSON 字节数组；{@code object} 为 {@code null} 时返回 {@code null}
      */
     public static byte[] toJSONBytes(Object object, SerializerFeature[] features, Charset charset) {
-        String json = toJSONString(object, features);
-        return json == null ? null : json.getBytes(charset);
+        if (object == null) {
+            return null;
+        }
+        SerializedForm form = StandardCharsets.UTF_8.equals(charset) ? frozenForm(object, features) : null;
+        if (form != null) {
+            return form.bytes(object).clone();
+        }
+        try {
+            if (StandardCharsets.UTF_8.equals(charset) && isIncremental(object, features)) {
+                return IncrementalWriter.toBytes(object);
+            }
+            return JacksonSupport.writeValueAsBytes(JacksonSupport.writer(features), object, charset);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
     }
 
     /**
@@ -651,12 +967,61 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
             return;
         }
         try {
+            SerializedForm form = frozenForm(object, features);
+            if (form != null) {
+                // 与 Jackson 写出后关闭目标流的默认行为保持一致
+                outputStream.write(form.bytes(object));
+                outputStream.close();
+                return;
+            }
+            if (isIncremental(object, features)) {
+                outputStream.write(IncrementalWriter.toBytes(object));
+                outputStream.close();
+                return;
+            }
             JacksonSupport.writer(features).writeValue(outputStream, object);
         } catch (IOException e) {
             throw new JSONException(e.getMessage(), e);
         }
     }
 
+    /**
+     * 返回冻结容器缓存的序列化结果，见 {@link JSONObject#freeze()}。
+     *
+     * @param object   待序列化对象
+     * @param features 序列化特性
+     * @return 对象未冻结或指定了序列化特性时返回 {@code null}
+     */
+    private static SerializedForm frozenForm(Object object, SerializerFeature[] features) {
+        if (features != null && features.length != 0) {
+            return null;
+        }
+        if (object instanceof JSONObject) {
+            return ((JSONObject) object).frozenForm();
+        }
+        if (object instanceof JSONArray) {
+            return ((JSONArray) object).frozenForm();
+        }
+        return null;
+    }
+
+    /**
+     * 是否使用增量序列化，见 {@link JSONObject#setIncrementalSerialization(boolean)}。
+     *
+     * @param object   待序列化对象
+     * @param features 序列化特性
+     * @return 根容器启用了增量序列化且未指定序列化特性时返回 {@code true}
+     */
+    private static boolean isIncremental(Object object, SerializerFeature[] features) {
+        if (features != null && features.length != 0) {
+            return false;
+        }
+        if (object instanceof JSONObject) {
+            return ((JSONObject) object).isIncrementalSerialization();
+        }
+        return object instanceof JSONArray && ((JSONArray) object).isIncrementalSerialization();
+    }
+
     // ======================== 转换与校验 ========================
 
     /**
@@ -688,6 +1053,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
 
     /**
      * 将 {@link JSON} 子类（{@link JSONObject}/{@link JSONArray}）转换为指定类型的 Java 对象。
+     * <p>直接从内存树绑定，不会生成中间 JSON 字符串。</p>
      *
      * @param json  JSON 容器
      * @param clazz 目标类型
@@ -698,27 +1064,39 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
         if (json == null) {
             return null;
         }
-        return parseObject(toJSONString(json), clazz);
+        return toJavaObject((Object) json, clazz);
     }
 
     /**
-     * 校验字符串是否为合法 JSON（对象、数组或基本类型均可）。
+     * 将内存中的值直接绑定为指定类型，不经过 JSON 文本的序列化与重新解析。
      *
-     * @param text 待校验字符串
-     * @return 合法返回 {@code true}，否则返回 {@code false}
+     * @param value 源值，可为 {@link JSONObject}、{@link JSONArray} 或基本类型
+     * @param clazz 目标类型
+     * @param <T>   目标泛型
+     * @return Java 对象；{@code value} 为 {@code null} 时返回 {@code null}
      */
-    public static boolean isValid(String text) {
-        if (text == null || text.isEmpty()) {
-            return false;
+    static <T> T toJavaObject(Object value, Class<T> clazz) {
+        if (value == null) {
+            return null;
         }
         try {
-            JacksonSupport.defaultMapper().readTree(text);
-            return true;
+            return JacksonSupport.convertValue(value, JavaTypeCache.of(clazz));
         } catch (IOException e) {
-            return false;
+            throw new JSONException(e.getMessage(), e);
         }
     }
 
+    /**
+     * 校验字符串是否为合法 JSON（对象、数组或基本类型均可）。
+     * <p>只扫描 token，不构建树结构；根值之后存在多余内容视为非法。</p>
+     *
+     * @param text 待校验字符串
+     * @return 合法返回 {@code true}，否则返回 {@code false}
+     */
+    public static boolean isValid(String text) {
+        return validate(text, null);
+    }
+
     /**
      * 校验字符串是否为合法 JSON 对象（{@code {...}}）。
      *
@@ -726,15 +1104,7 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
      * @return 是 JSON 对象返回 {@code true}，否则返回 {@code false}
      */
     public static boolean isValidObject(String text) {
-        if (text == null || text.isEmpty()) {
-            return false;
-        }
-        try {
-            JsonNode node = JacksonSupport.defaultMapper().readTree(text);
-            return node.isObject();
-        } catch (IOException e) {
-            return false;
-        }
+        return validate(text, JsonToken.START_OBJECT);
     }
 
     /**
@@ -744,12 +1114,97 @@ public abstract class JSON implements JSONStreamAware, JSONAware {
      * @return 是 JSON 数组返回 {@code true}，否则返回 {@code false}
      */
     public static boolean isValidArray(String text) {
+        return validate(text, JsonToken.START_ARRAY);
+    }
+
+    /**
+     * 校验字节数组是否为合法 JSON，编码按 BOM/首字节自动识别。
+     *
+     * @param bytes 待校验字节数组
+     * @return 合法返回 {@code true}，否则返回 {@code false}
+     */
+    public static boolean isValid(byte[] bytes) {
+        return validate(bytes, null);
+    }
+
+    /**
+     * 校验字节数组是否为合法 JSON 对象。
+     *
+     * @param bytes 待校验字节数组
+     * @return 是 JSON 对象返回 {@code true}，否则返回 {@code false}
+     */
+    public static boolean isValidObject(byte[] bytes) {
+        return validate(bytes, JsonToken.START_OBJECT);
+    }
+
+    /**
+     * 校验字节数组是否为合法 JSON 数组。
+     *
+     * @param bytes 待校验字节数组
+     * @return 是 JSON 数组返回 {@code true}，否则返回 {@code false}
+     */
+    public static boolean isValidArray(byte[] bytes) {
+        return validate(bytes, JsonToken.START_ARRAY);
+    }
+
+    /**
+     * 校验输入流内容是否为合法 JSON，校验结束后关闭输入流。
+     *
+     * @param inputStream 输入流
+     * @return 合法返回 {@code true}，否则返回 {@code false}
+     */
+    public static boolean isValid(InputStream inputStream) {
+        return validate(inputStream, null);
+    }
+
+    /**
+     * 校验输入流内容是否为合法 JSON 对象，校验结束后关闭输入流。
+     *
+     * @param inputStream 输入流
+     * @return 是 JSON 对象返回 {@code true}，否则返回 {@code false}
+     */
+    public static boolean isValidObject(InputStream inputStream) {
+        return validate(inputStream, JsonToken.START_OBJECT);
+    }
+
+    /**
+     * 校验输入流内容是否为合法 JSON 数组，校验结束后关闭输入流。
+     *
+     * @param inputStream 输入流
+     * @return 是 JSON 数组返回 {@code true}，否则返回 {@code false}
+     */
+    public static boolean isValidArray(InputStream inputStream) {
+        return validate(inputStream, JsonToken.START_ARRAY);
+    }
+
+    private static boolean validate(String text, JsonToken expectedRoot) {
         if (text == null || text.isEmpty()) {
             return false;
         }
-        try {
-            JsonNode node = JacksonSupport.defaultMapper().readTree(text);
-            return node.isArray();
+        try (JsonParser parser = JacksonSupport.defaultMapper().createParser(text)) {
+            return JsonValidator.validate(parser, expectedRoot);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean validate(byte[] bytes, JsonToken expectedRoot) {
+        if (bytes == null || bytes.length == 0) {
+            return false;
+        }
+        try (JsonParser parser = JacksonSupport.defaultMapper().createParser(bytes)) {
+            return JsonValidator.validate(parser, expectedRoot);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean validate(InputStream inputStream, JsonToken expectedRoot) {
+        if (inputStream == null) {
+            return false;
+        }
+        try (JsonParser parser = JacksonSupport.defaultMapper().createParser(inputStream)) {
+            return JsonValidator.validate(parser, expectedRoot);
         } catch (IOException e) {
             return false;
         }
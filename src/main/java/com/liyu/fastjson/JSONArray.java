@@ -1,14 +1,27 @@
 package com.liyu.fastjson;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 import com.liyu.fastjson.parser.Feature;
+import com.liyu.fastjson.parser.ParserConfig;
 import com.liyu.fastjson.serializer.SerializerFeature;
+import com.liyu.fastjson.support.ColumnarList;
+import com.liyu.fastjson.support.CompactList;
+import com.liyu.fastjson.support.JavaListConverter;
+import com.liyu.fastjson.support.SerializedForm;
 import com.liyu.fastjson.support.TypeUtils;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -20,6 +33,15 @@ import java.util.Map;
  * <p>
  * 实现 {@link List}{@code <Object>} 接口，API 与
  * {@code com.alibaba.fastjson.JSONArray} 保持一致。
+ * 内部使用 {@link CompactList} 存储：元素全部为 {@link Integer}、{@link Long} 或解析得到的小数时使用基本类型数组，
+ * 加入其他类型的元素后自动转为普通的对象数组。
+ * 启用 {@link com.liyu.fastjson.parser.ParserConfig#setColumnarArray(boolean)} 后，解析得到的同构对象数组按列存储，
+ * 见 {@link ColumnarList}。
+ * </p>
+ * <p>
+ * {@link #clone()} 返回完全独立的深拷贝；{@link #copyOnWriteClone()} 为写时复制，与 {@link JSONObject#copyOnWriteClone()} 相同。
+ * {@link #freeze()} 返回深度不可变、缓存序列化结果的副本。
+ * {@link #wrap(List, boolean)} 以调用方的 List 为存储创建视图而不复制。
  * </p>
  *
  * <pre>{@code
@@ -32,26 +54,78 @@ import java.util.Map;
  * @see JSON#parseArray(String)
  * @see JSONObject
  */
-public class JSONArray extends JSON implements List<Object>, Cloneable, Serializable {
+public class JSONArray extends JSON implements List<Object>, Cloneable, Serializable, JsonSerializable {
 
     private static final long serialVersionUID = 1L;
 
-    private final List<Object> list;
+    /**
+     * {@link #toJavaList(Class, boolean)} 启用并行转换的最小元素个数，默认 4096
+     */
+    public static int PARALLEL_CONVERT_THRESHOLD = 4096;
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 10;
+
+    private List<Object> list;
+
+    /**
+     * 存储是否与 {@link #copyOnWriteClone()} 得到的其他数组共享，仅 {@link CompactList} 存储与写时复制的视图可共享
+     */
+    private transient boolean shared;
+
+    /**
+     * 存储是否为调用方的 List（见 {@link #wrap(List, boolean)}），其中嵌套的普通 Map/List 在取出时才包装
+     */
+    private transient boolean view;
+
+    /**
+     * 是否已通过 {@link #subList(int, int)} 交出内部存储的视图，此后本层不再缓存增量序列化的字节
+     */
+    private transient boolean exposed;
+
+    /**
+     * 冻结数组缓存的序列化结果与哈希值；不为 {@code null} 即表示已冻结
+     */
+    private transient SerializedForm form;
+
+    /**
+     * 增量序列化缓存的本层字节，修改后置为 {@code null}
+     */
+    private transient IncrementalWriter.Level serialized;
+
+    private transient boolean incremental;
 
     /**
      * 创建空的 JSONArray。
      */
     public JSONArray() {
-        this.list = new ArrayList<>();
+        this.list = new CompactList(DEFAULT_INITIAL_CAPACITY);
     }
 
     /**
      * 根据已有 List 创建 JSONArray，嵌套 Map/List 会自动转换。
+     * <p>
+     * 启用 {@link ParserConfig#setWrapCollections(boolean)} 后不再复制，等同 {@link #wrap(List, boolean)}。
+     * </p>
      *
      * @param list 源 List，可为 {@code null}（等同空数组）
      */
     public JSONArray(List<Object> list) {
-        this.list = new ArrayList<>();
+        this(list, false);
+    }
+
+    private JSONArray(List<Object> list, boolean wrap) {
+        if (wrap) {
+            this.list = list;
+            return;
+        }
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        if (list != null && config.isWrapCollections()) {
+            this.list = list;
+            this.view = true;
+            this.shared = config.isWrapCopyOnWrite();
+            return;
+        }
+        this.list = new CompactList(list == null ? DEFAULT_INITIAL_CAPACITY : list.size());
         if (list != null) {
             for (Object item : list) {
                 this.list.add(convertValue(item));
@@ -65,16 +139,27 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      * @param initialCapacity 初始容量
      */
     public JSONArray(int initialCapacity) {
-        this.list = new ArrayList<>(initialCapacity);
+        this.list = new CompactList(initialCapacity);
     }
 
     /**
      * 根据 Collection 创建 JSONArray。
+     * <p>
+     * 源集合为 {@link List} 时规则同 {@link #JSONArray(List)}。
+     * </p>
      *
      * @param collection 源集合，可为 {@code null}（等同空数组）
      */
+    @SuppressWarnings("unchecked")
     public JSONArray(Collection<?> collection) {
-        this.list = new ArrayList<>();
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        if (collection instanceof List && config.isWrapCollections()) {
+            this.list = (List<Object>) collection;
+            this.view = true;
+            this.shared = config.isWrapCopyOnWrite();
+            return;
+        }
+        this.list = new CompactList(collection == null ? DEFAULT_INITIAL_CAPACITY : collection.size());
         if (collection != null) {
             for (Object item : collection) {
                 this.list.add(convertValue(item));
@@ -82,6 +167,50 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
         }
     }
 
+    /**
+     * 以指定 List 作为内部存储创建 JSONArray，不复制也不转换其中的元素。
+     * <p>
+     * 供自定义存储实现（如 {@link ColumnarList}）使用，调用方需保证嵌套容器已是
+     * {@link JSONObject}/{@link JSONArray}，且之后只通过返回的对象访问该 List。
+     * </p>
+     *
+     * @param innerList 内部存储
+     * @return 以 {@code innerList} 为存储的 JSONArray
+     */
+    public static JSONArray wrapInnerList(List<Object> innerList) {
+        if (innerList == null) {
+            throw new IllegalArgumentException("innerList is null");
+        }
+        return new JSONArray(innerList, true);
+    }
+
+    /**
+     * 返回以 {@code list} 为存储的视图，不复制也不转换，规则同 {@link JSONObject#wrap(Map)}。
+     *
+     * @param list 源 List
+     * @return 写入直接作用于 {@code list} 的视图
+     */
+    public static JSONArray wrap(List<Object> list) {
+        return wrap(list, false);
+    }
+
+    /**
+     * 返回以 {@code list} 为存储的视图，不复制也不转换，规则同 {@link JSONObject#wrap(Map, boolean)}。
+     *
+     * @param list        源 List
+     * @param copyOnWrite 写入时是否先复制
+     * @return 视图
+     */
+    public static JSONArray wrap(List<Object> list, boolean copyOnWrite) {
+        if (list == null) {
+            throw new IllegalArgumentException("list is null");
+        }
+        JSONArray array = new JSONArray(list, true);
+        array.view = true;
+        array.shared = copyOnWrite;
+        return array;
+    }
+
     /**
      * 解析 JSON 字符串为 {@link JSONArray}。
      *
@@ -168,7 +297,11 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public Iterator<Object> iterator() {
-        return list.iterator();
+        if (form != null) {
+            return Collections.unmodifiableList(list).iterator();
+        }
+        ownElements();
+        return InvalidatingViews.iterator(list.iterator(), this::invalidate);
     }
 
     /**
@@ -176,6 +309,7 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public Object[] toArray() {
+        ownElements();
         return list.toArray();
     }
 
@@ -184,6 +318,7 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public <T> T[] toArray(T[] a) {
+        ownElements();
         return list.toArray(a);
     }
 
@@ -195,6 +330,7 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public boolean add(Object e) {
+        beforeWrite();
         return list.add(convertValue(e));
     }
 
@@ -203,6 +339,7 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public boolean remove(Object o) {
+        beforeWrite();
         return list.remove(o);
     }
 
@@ -243,6 +380,7 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public boolean removeAll(Collection<?> c) {
+        beforeWrite();
         return list.removeAll(c);
     }
 
@@ -251,6 +389,7 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public boolean retainAll(Collection<?> c) {
+        beforeWrite();
         return list.retainAll(c);
     }
 
@@ -259,6 +398,7 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public void clear() {
+        beforeWrite();
         list.clear();
     }
 
@@ -267,7 +407,14 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public Object get(int index) {
-        return list.get(index);
+        Object value = list.get(index);
+        if (shared && (value instanceof Map || value instanceof List)) {
+            own();
+            value = list.get(index);
+        } else if (view) {
+            value = JSONObject.wrapNested(value, false);
+        }
+        return value;
     }
 
     /**
@@ -275,6 +422,7 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public Object set(int index, Object element) {
+        beforeWrite();
         return list.set(index, convertValue(element));
     }
 
@@ -283,6 +431,7 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public void add(int index, Object element) {
+        beforeWrite();
         list.add(index, convertValue(element));
     }
 
@@ -291,6 +440,7 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public Object remove(int index) {
+        beforeWrite();
         return list.remove(index);
     }
 
@@ -315,7 +465,11 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public ListIterator<Object> listIterator() {
-        return list.listIterator();
+        if (form != null) {
+            return Collections.unmodifiableList(list).listIterator();
+        }
+        ownElements();
+        return InvalidatingViews.listIterator(list.listIterator(), this::invalidate);
     }
 
     /**
@@ -323,7 +477,11 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public ListIterator<Object> listIterator(int index) {
-        return list.listIterator(index);
+        if (form != null) {
+            return Collections.unmodifiableList(list).listIterator(index);
+        }
+        ownElements();
+        return InvalidatingViews.listIterator(list.listIterator(index), this::invalidate);
     }
 
     /**
@@ -331,6 +489,14 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public List<Object> subList(int fromIndex, int toIndex) {
+        if (form != null) {
+            return Collections.unmodifiableList(list).subList(fromIndex, toIndex);
+        }
+        serialized = null;
+        if (shared) {
+            own();
+        }
+        exposed = true;
         return list.subList(fromIndex, toIndex);
     }
 
@@ -404,6 +570,10 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      * @return int 值
      */
     public int getIntValue(int index) {
+        CompactList numbers = numericList();
+        if (numbers != null) {
+            return numbers.getInt(index);
+        }
         return TypeUtils.castToIntValue(get(index));
     }
 
@@ -424,6 +594,10 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      * @return long 值
      */
     public long getLongValue(int index) {
+        CompactList numbers = numericList();
+        if (numbers != null) {
+            return numbers.getLong(index);
+        }
         return TypeUtils.castToLongValue(get(index));
     }
 
@@ -485,9 +659,176 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      * @return double 值
      */
     public double getDoubleValue(int index) {
+        CompactList numbers = numericList();
+        if (numbers != null) {
+            return numbers.getDouble(index);
+        }
         return TypeUtils.castToDoubleValue(get(index));
     }
 
+    /**
+     * 将全部元素转换为 int 数组，规则同 {@link #getIntValue(int)}；数值存储时直接批量复制。
+     *
+     * @return 新数组
+     */
+    public int[] toIntArray() {
+        CompactList numbers = numericList();
+        if (numbers != null) {
+            return numbers.toIntArray();
+        }
+        int[] result = new int[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = TypeUtils.castToIntValue(list.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 将全部元素转换为 long 数组，规则同 {@link #getLongValue(int)}；数值存储时直接批量复制。
+     *
+     * @return 新数组
+     */
+    public long[] toLongArray() {
+        CompactList numbers = numericList();
+        if (numbers != null) {
+            return numbers.toLongArray();
+        }
+        long[] result = new long[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = TypeUtils.castToLongValue(list.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 将全部元素转换为 double 数组，规则同 {@link #getDoubleValue(int)}；数值存储时直接批量复制。
+     *
+     * @return 新数组
+     */
+    public double[] toDoubleArray() {
+        CompactList numbers = numericList();
+        if (numbers != null) {
+            return numbers.toDoubleArray();
+        }
+        double[] result = new double[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = TypeUtils.castToDoubleValue(list.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * 返回各元素对象中 {@code key} 字段按 {@link JSONObject#getLongValue(String)} 规则转换的值，
+     * 非对象元素、缺失或 {@code null} 为 {@code 0}。列式存储时直接读取列数据，不创建行对象。
+     *
+     * @param key 字段名
+     * @return 新数组
+     */
+    public long[] getLongColumn(String key) {
+        ColumnarList columns = columnarList();
+        if (columns != null) {
+            return columns.getLongColumn(key);
+        }
+        long[] result = new long[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = TypeUtils.castToLongValue(field(i, key));
+        }
+        return result;
+    }
+
+    /**
+     * 返回各元素对象中 {@code key} 字段按 {@link JSONObject#getDoubleValue(String)} 规则转换的值，
+     * 非对象元素、缺失或 {@code null} 为 {@code 0.0}。列式存储时直接读取列数据，不创建行对象。
+     *
+     * @param key 字段名
+     * @return 新数组
+     */
+    public double[] getDoubleColumn(String key) {
+        ColumnarList columns = columnarList();
+        if (columns != null) {
+            return columns.getDoubleColumn(key);
+        }
+        double[] result = new double[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = TypeUtils.castToDoubleValue(field(i, key));
+        }
+        return result;
+    }
+
+    /**
+     * 返回各元素对象中 {@code key} 字段非 {@code null} 值按 double 计算的和。
+     *
+     * @param key 字段名
+     * @return 和；没有值时为 {@code 0.0}
+     */
+    public double sum(String key) {
+        ColumnarList columns = columnarList();
+        if (columns != null) {
+            return columns.sum(key);
+        }
+        double sum = 0;
+        for (int i = 0, n = list.size(); i < n; i++) {
+            sum += TypeUtils.castToDoubleValue(field(i, key));
+        }
+        return sum;
+    }
+
+    /**
+     * 返回各元素对象中 {@code key} 字段非 {@code null} 值的最小值。
+     *
+     * @param key 字段名
+     * @return 最小值；没有值时为 {@link Double#NaN}
+     */
+    public double min(String key) {
+        ColumnarList columns = columnarList();
+        return columns != null ? columns.min(key) : extreme(key, true);
+    }
+
+    /**
+     * 返回各元素对象中 {@code key} 字段非 {@code null} 值的最大值。
+     *
+     * @param key 字段名
+     * @return 最大值；没有值时为 {@link Double#NaN}
+     */
+    public double max(String key) {
+        ColumnarList columns = columnarList();
+        return columns != null ? columns.max(key) : extreme(key, false);
+    }
+
+    private double extreme(String key, boolean min) {
+        double result = Double.NaN;
+        for (int i = 0, n = list.size(); i < n; i++) {
+            Object value = field(i, key);
+            if (value == null) {
+                continue;
+            }
+            double d = TypeUtils.castToDoubleValue(value);
+            if (Double.isNaN(result) || (min ? d < result : d > result)) {
+                result = d;
+            }
+        }
+        return result;
+    }
+
+    private Object field(int index, String key) {
+        Object item = list.get(index);
+        return item instanceof Map ? ((Map<?, ?>) item).get(key) : null;
+    }
+
+    private ColumnarList columnarList() {
+        if (list instanceof ColumnarList && ((ColumnarList) list).isColumnar()) {
+            return (ColumnarList) list;
+        }
+        return null;
+    }
+
+    private CompactList numericList() {
+        if (list instanceof CompactList && ((CompactList) list).isNumeric()) {
+            return (CompactList) list;
+        }
+        return null;
+    }
+
     /**
      * 获取指定下标的 {@link BigDecimal} 值。
      *
@@ -555,7 +896,7 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
         if (clazz.isInstance(value)) {
             return clazz.cast(value);
         }
-        return JSON.parseObject(JSON.toJSONString(value), clazz);
+        return JSON.toJavaObject(value, clazz);
     }
 
     /**
@@ -571,17 +912,46 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
 
     /**
      * 将 JSONArray 中每个元素转换为 {@code List<T>}。
+     * <p>元素反序列化器只解析一次，每个元素直接从内存树绑定，不经过 JSON 文本。</p>
      *
      * @param clazz 元素目标类型
      * @param <T>   元素泛型
      * @return 转换后的列表
      */
     public <T> List<T> toJavaList(Class<T> clazz) {
-        List<T> result = new ArrayList<>(size());
-        for (int i = 0; i < size(); i++) {
-            result.add(getObject(i, clazz));
+        return toJavaList(clazz, false);
+    }
+
+    /**
+     * 将 JSONArray 中每个元素转换为 {@code List<T>}，可选并行转换。
+     * <p>
+     * {@code parallel} 为 {@code true} 且元素个数不小于 {@link #PARALLEL_CONVERT_THRESHOLD} 时，
+     * 使用 ForkJoin 公共池并行转换，结果顺序与数组一致；否则顺序转换。
+     * </p>
+     *
+     * @param clazz    元素目标类型
+     * @param parallel 是否允许并行转换
+     * @param <T>      元素泛型
+     * @return 转换后的列表
+     */
+    public <T> List<T> toJavaList(Class<T> clazz, boolean parallel) {
+        JavaListConverter<T> converter = new JavaListConverter<>(clazz);
+        if (parallel && list.size() >= PARALLEL_CONVERT_THRESHOLD) {
+            return converter.convertAllParallel(list);
         }
-        return result;
+        return converter.convertAll(list);
+    }
+
+    /**
+     * 返回惰性转换的只读 {@code List<T>} 视图，元素在首次访问时才转换并缓存结果。
+     * <p>适合只访问大数组中少量元素的场景；视图基于调用时的元素快照，之后对本数组的修改不会反映到视图中。</p>
+     *
+     * @param clazz 元素目标类型
+     * @param <T>   元素泛型
+     * @return 惰性列表视图
+     */
+    public <T> List<T> toJavaListView(Class<T> clazz) {
+        return new JavaListConverter<>(clazz).lazyView(list);
     }
 
     /**
@@ -595,25 +965,210 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
     }
 
     /**
-     * 深拷贝当前 JSONArray（嵌套对象递归克隆）。
+     * 深拷贝当前 JSONArray，等同 {@link #deepClone()}。
      *
      * @return 克隆后的新数组
      */
     @Override
     public JSONArray clone() {
-        JSONArray clone = new JSONArray();
-        for (Object item : list) {
-            if (item instanceof JSONObject) {
-                clone.add(((JSONObject) item).clone());
-            } else if (item instanceof JSONArray) {
-                clone.add(((JSONArray) item).clone());
-            } else {
-                clone.add(item);
-            }
+        return deepClone();
+    }
+
+    /**
+     * 写时复制地克隆当前 JSONArray，耗时与元素个数无关。
+     * <p>
+     * 规则与限制同 {@link JSONObject#copyOnWriteClone()}：双方共享存储，任一方修改或取出嵌套对象/数组时才复制自身这一层；
+     * 调用前已取得的嵌套容器引用仍指向共享节点，且本方法不能与对当前数组的其他访问并发执行。
+     * {@link ColumnarList} 等自定义存储与 {@link #wrap(List, boolean)} 视图无法共享，退化为深拷贝。
+     * </p>
+     *
+     * @return 写时复制的新数组
+     */
+    public JSONArray copyOnWriteClone() {
+        if (view || !(list instanceof CompactList)) {
+            return deepClone();
+        }
+        // 冻结数组不会再修改，无需复制自身的存储
+        if (form == null) {
+            shared = true;
         }
+        JSONArray clone = new JSONArray(list, true);
+        clone.shared = true;
         return clone;
     }
 
+    /**
+     * 返回深度不可变的冻结副本，规则同 {@link JSONObject#freeze()}。
+     *
+     * @return 冻结的副本
+     */
+    public JSONArray freeze() {
+        return form != null ? this : (JSONArray) DeepCopier.freeze(this);
+    }
+
+    /**
+     * 是否启用增量序列化。
+     *
+     * @return 启用返回 {@code true}
+     * @see #setIncrementalSerialization(boolean)
+     */
+    public boolean isIncrementalSerialization() {
+        return incremental;
+    }
+
+    /**
+     * 设置以当前数组为根序列化时是否启用增量序列化，规则同 {@link JSONObject#setIncrementalSerialization(boolean)}。
+     *
+     * @param incremental 是否启用
+     * @throws UnsupportedOperationException 数组已冻结时抛出
+     */
+    public void setIncrementalSerialization(boolean incremental) {
+        if (form != null) {
+            throw new UnsupportedOperationException("JSONArray is frozen");
+        }
+        this.incremental = incremental;
+        if (!incremental) {
+            serialized = null;
+        }
+    }
+
+    /**
+     * 是否为 {@link #freeze()} 得到的冻结数组。
+     *
+     * @return 已冻结返回 {@code true}
+     */
+    public boolean isFrozen() {
+        return form != null;
+    }
+
+    /**
+     * 深拷贝当前 JSONArray，嵌套对象/数组全部递归复制。
+     *
+     * @return 与当前数组完全独立的副本
+     */
+    public JSONArray deepClone() {
+        return deepClone(false);
+    }
+
+    /**
+     * 深拷贝当前 JSONArray，可选并行复制，规则同 {@link JSONObject#deepClone(boolean)}。
+     *
+     * @param parallel 是否允许并行复制
+     * @return 与当前数组完全独立的副本
+     */
+    public JSONArray deepClone(boolean parallel) {
+        return (JSONArray) (parallel ? DeepCopier.parallelCopy(this) : DeepCopier.copy(this));
+    }
+
+    /**
+     * 复制共享的存储，使之后的修改只作用于当前数组；嵌套容器替换为各自的写时复制克隆，
+     * 视图中的普通 Map/List 替换为写时复制的视图。
+     */
+    private void own() {
+        CompactList copy;
+        if (list instanceof CompactList) {
+            copy = ((CompactList) list).copy();
+        } else {
+            copy = new CompactList(list.size());
+            copy.addAll(list);
+        }
+        if (copy.getStorage() == CompactList.BOXED) {
+            for (int i = 0, n = copy.size(); i < n; i++) {
+                Object item = copy.get(i);
+                if (item instanceof JSONObject) {
+                    copy.set(i, ((JSONObject) item).copyOnWriteClone());
+                } else if (item instanceof JSONArray) {
+                    copy.set(i, ((JSONArray) item).copyOnWriteClone());
+                } else if (view) {
+                    copy.set(i, JSONObject.wrapNested(item, true));
+                }
+            }
+        }
+        list = copy;
+        shared = false;
+        view = false;
+        exposed = false;
+        serialized = null;
+    }
+
+    /**
+     * 对外暴露元素（迭代器、{@code toArray} 等）前调用：共享的存储可能含有嵌套容器时先复制，数值存储无需复制。
+     */
+    private void ownElements() {
+        if (shared && (!(list instanceof CompactList) || ((CompactList) list).getStorage() == CompactList.BOXED)) {
+            own();
+        }
+    }
+
+    /**
+     * 本层能否缓存增量序列化的字节：调用方集合的视图（见 {@link #wrap(List, boolean)}）与交出过
+     * {@link #subList(int, int)} 的数组可能被绕过修改，不缓存。
+     */
+    boolean isCacheable() {
+        return !view && !exposed;
+    }
+
+    /**
+     * 经迭代器写入前调用，丢弃增量序列化缓存。
+     */
+    private void invalidate() {
+        serialized = null;
+    }
+
+    /**
+     * 修改存储前调用：已冻结时拒绝修改，存储共享时先复制。
+     */
+    private void beforeWrite() {
+        if (form != null) {
+            throw new UnsupportedOperationException("JSONArray is frozen");
+        }
+        serialized = null;
+        if (shared) {
+            own();
+        }
+    }
+
+    /**
+     * 返回增量序列化缓存的本层字节。
+     *
+     * @return 未缓存或已修改时返回 {@code null}
+     */
+    IncrementalWriter.Level serializedLevel() {
+        return serialized;
+    }
+
+    /**
+     * 保存增量序列化生成的本层字节。
+     *
+     * @param level 本层字节
+     */
+    void serializedLevel(IncrementalWriter.Level level) {
+        serialized = level;
+    }
+
+    /**
+     * 标记为冻结，仅由 {@link DeepCopier} 在构建完冻结副本后调用。
+     */
+    void markFrozen() {
+        form = new SerializedForm();
+    }
+
+    /**
+     * 返回冻结数组缓存的序列化结果。
+     *
+     * @return 未冻结时返回 {@code null}
+     */
+    SerializedForm frozenForm() {
+        return form;
+    }
+
+    /**
+     * 返回内部存储供 {@link DeepCopier} 只读访问，不触发写时复制。
+     */
+    List<Object> storage() {
+        return list;
+    }
+
     /**
      * 返回 JSON 字符串，等价于 {@link #toJSONString()}。
      */
@@ -631,7 +1186,11 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
             return true;
         }
         if (obj instanceof JSONArray) {
-            return list.equals(((JSONArray) obj).list);
+            JSONArray other = (JSONArray) obj;
+            if (form != null && other.form != null && hashCode() != other.hashCode()) {
+                return false;
+            }
+            return list.equals(other.list);
         }
         if (obj instanceof List) {
             return list.equals(obj);
@@ -644,6 +1203,47 @@ public class JSONArray extends JSON implements List<Object>, Cloneable, Serializ
      */
     @Override
     public int hashCode() {
+        if (form != null) {
+            return form.hash(list::hashCode);
+        }
         return list.hashCode();
     }
+
+    /**
+     * 以 JSON 数组形式写出全部元素，直接读取内部存储，不会触发写时复制。
+     *
+     * @param gen      JSON 生成器
+     * @param provider 序列化上下文
+     * @throws IOException 写出失败时抛出
+     */
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+        provider.findValueSerializer(list.getClass(), null).serialize(list, gen, provider);
+    }
+
+    /**
+     * 写出带类型信息的 JSON 数组，类型标识为当前 {@link JSONArray} 类。
+     *
+     * @param gen      JSON 生成器
+     * @param provider 序列化上下文
+     * @param typeSer  类型序列化器
+     * @throws IOException 写出失败时抛出
+     */
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer)
+            throws IOException {
+        WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(this, JsonToken.START_ARRAY));
+        for (int i = 0, n = list.size(); i < n; i++) {
+            provider.defaultSerializeValue(list.get(i), gen);
+        }
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // 共享的存储若一并写出，反序列化后两个数组会共用同一个 List
+        if (shared) {
+            own();
+        }
+        out.defaultWriteObject();
+    }
 }
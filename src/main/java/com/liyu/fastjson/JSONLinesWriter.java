@@ -0,0 +1,221 @@
+package com.liyu.fastjson;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.liyu.fastjson.serializer.SerializerFeature;
+import com.liyu.fastjson.support.JacksonSupport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 以 JSON Lines（NDJSON）格式逐条写出记录：每条记录一行 UTF-8 JSON，以 {@code \n} 结尾。
+ * <p>
+ * 所有记录共享同一个 {@link JsonGenerator}，先写入写出器内部可复用的缓冲区，不会为每条记录单独创建生成器或中间字符串。
+ * 缓冲的记录数达到 {@code flushRecords} 或字节数达到 {@code flushBytes} 时才一次写入目标流并调用
+ * {@link OutputStream#flush()}，也可随时手动 {@link #flush()}。
+ * 某条记录序列化失败（如 getter 抛出异常）时丢弃其已生成的部分并重建生成器，目标流中只会出现完整的记录，
+ * 之后的记录照常写出。
+ * {@link SerializerFeature#PrettyFormat} 会破坏行格式，始终被忽略。
+ * </p>
+ * <p>实例非线程安全；关闭时写出剩余数据并关闭目标输出流。</p>
+ *
+ * <pre>{@code
+ * try (JSONLinesWriter writer = new JSONLinesWriter(out)) {
+ *     for (Event event : events) {
+ *         writer.write(event);
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see JSON#readLines(java.io.InputStream, Class, com.liyu.fastjson.parser.Feature...)
+ */
+public class JSONLinesWriter implements Closeable, Flushable {
+
+    /**
+     * 默认每写出多少条记录刷新一次
+     */
+    public static final int DEFAULT_FLUSH_RECORDS = 1024;
+
+    /**
+     * 默认每写出多少字节刷新一次
+     */
+    public static final int DEFAULT_FLUSH_BYTES = 64 * 1024;
+
+    private final OutputStream out;
+    private final ObjectWriter writer;
+    private final RecordBuffer buffer;
+    private final int flushRecords;
+    private final int flushBytes;
+
+    private JsonGenerator generator;
+    private long recordCount;
+    private int pendingRecords;
+    private boolean closed;
+
+    /**
+     * 以默认刷新阈值创建。
+     *
+     * @param out      目标输出流
+     * @param features 序列化特性
+     */
+    public JSONLinesWriter(OutputStream out, SerializerFeature... features) {
+        this(out, DEFAULT_FLUSH_RECORDS, DEFAULT_FLUSH_BYTES, features);
+    }
+
+    /**
+     * 创建写出器。
+     *
+     * @param out          目标输出流
+     * @param flushRecords 每写出多少条记录刷新一次，必须大于 0
+     * @param flushBytes   每写出多少字节刷新一次，必须大于 0
+     * @param features     序列化特性
+     */
+    public JSONLinesWriter(OutputStream out, int flushRecords, int flushBytes, SerializerFeature... features) {
+        if (out == null) {
+            throw new IllegalArgumentException("out is null");
+        }
+        if (flushRecords <= 0 || flushBytes <= 0) {
+            throw new IllegalArgumentException("flush threshold must be positive, flushRecords : " + flushRecords
+                    + ", flushBytes : " + flushBytes);
+        }
+        this.out = out;
+        this.flushRecords = flushRecords;
+        this.flushBytes = flushBytes;
+        this.writer = JacksonSupport.writer(features)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.buffer = new RecordBuffer(Math.min(flushBytes, DEFAULT_FLUSH_BYTES));
+        this.generator = createGenerator();
+    }
+
+    private JsonGenerator createGenerator() {
+        JsonGenerator gen;
+        try {
+            gen = writer.createGenerator(buffer, JsonEncoding.UTF8);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+        // 记录之间由换行分隔，不需要 Jackson 默认的根值分隔符
+        gen.setRootValueSeparator(null);
+        return gen;
+    }
+
+    /**
+     * 写出一条记录。
+     *
+     * @param value 记录，可为 JavaBean、{@link JSONObject} 等；{@code null} 写出为 {@code null}
+     */
+    public void write(Object value) {
+        if (closed) {
+            throw new JSONException("JSONLinesWriter is closed");
+        }
+        int mark = buffer.size();
+        boolean written = false;
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+            generator.flush();
+            written = true;
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        } finally {
+            if (!written) {
+                discard(mark);
+            }
+        }
+        recordCount++;
+        if (++pendingRecords >= flushRecords || buffer.size() >= flushBytes) {
+            flush();
+        }
+    }
+
+    /**
+     * 丢弃失败记录已生成的部分：生成器停留在记录内部的上下文中无法继续使用，关闭后重建。
+     */
+    private void discard(int mark) {
+        try {
+            generator.close();
+        } catch (IOException | RuntimeException ignored) {
+            // 关闭时补全的结束符同样会被截掉
+        }
+        buffer.truncate(mark);
+        generator = createGenerator();
+    }
+
+    /**
+     * 依次写出全部记录。
+     *
+     * @param values 记录
+     */
+    public void writeAll(Iterable<?> values) {
+        for (Object value : values) {
+            write(value);
+        }
+    }
+
+    /**
+     * 返回已写出的记录数。
+     *
+     * @return 记录数
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * 将缓冲的记录写入并刷新目标输出流。
+     */
+    @Override
+    public void flush() {
+        if (closed) {
+            return;
+        }
+        try {
+            buffer.writeTo(out);
+            buffer.reset();
+            out.flush();
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+        pendingRecords = 0;
+    }
+
+    /**
+     * 写出剩余数据并关闭目标输出流，可重复调用。
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            generator.close();
+            buffer.writeTo(out);
+            buffer.reset();
+            out.close();
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 缓存尚未写入目标流的完整记录，可截掉失败记录已生成的部分
+     */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+
+        RecordBuffer(int capacity) {
+            super(capacity);
+        }
+
+        void truncate(int size) {
+            count = size;
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.liyu.fastjson;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.MapSerializer;
 import com.liyu.fastjson.parser.Feature;
+import com.liyu.fastjson.parser.ParserConfig;
 import com.liyu.fastjson.serializer.SerializerFeature;
+import com.liyu.fastjson.support.CompactMap;
+import com.liyu.fastjson.support.LazyNumber;
+import com.liyu.fastjson.support.LazyValue;
+import com.liyu.fastjson.support.SerializedForm;
 import com.liyu.fastjson.support.TypeUtils;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -19,7 +35,24 @@ import java.util.Set;
  * <p>
  * 实现 {@link Map}{@code <String, Object>} 接口，API 与
  * {@code com.alibaba.fastjson.JSONObject} 保持一致。
- * 内部使用 {@link LinkedHashMap} 保持字段插入顺序。
+ * 内部默认使用紧凑的数组存储 {@link CompactMap} 保持字段插入顺序，
+ * 可通过 {@link ParserConfig#setUseLinkedHashMap(boolean)} 回退为 {@link LinkedHashMap}。
+ * </p>
+ * <p>
+ * 启用 {@link ParserConfig#setLazyObject(boolean)} 后，解析得到的对象只在首次访问时
+ * 解析嵌套对象/数组；启用 {@link ParserConfig#setLazyNumber(boolean)} 后小数在读取时才解码。
+ * 所有读取方法的返回值与非惰性模式一致。
+ * </p>
+ * <p>
+ * {@link #clone()} 与 {@link #deepClone()} 相同，返回完全独立的深拷贝。{@link #copyOnWriteClone()} 为写时复制：
+ * 克隆体与原对象共享存储，任一方第一次修改或取出嵌套对象/数组时才复制自身这一层，
+ * 嵌套容器同样以写时复制的方式克隆，因此只有从根到被修改节点的路径会被复制。
+ * </p>
+ * <p>
+ * {@link #freeze()} 返回深度不可变、可在线程间共享的副本，并缓存其序列化结果与哈希值。
+ * </p>
+ * <p>
+ * {@link #wrap(Map, boolean)} 以调用方的 Map 为存储创建视图而不复制，嵌套集合在访问时才包装。
  * </p>
  *
  * <pre>{@code
@@ -32,26 +65,86 @@ import java.util.Set;
  * @see JSON#parseObject(String)
  * @see JSONArray
  */
-public class JSONObject extends JSON implements Map<String, Object>, Cloneable, Serializable {
+public class JSONObject extends JSON implements Map<String, Object>, Cloneable, Serializable, JsonSerializable {
 
     private static final long serialVersionUID = 1L;
 
-    private final Map<String, Object> map;
+    /**
+     * 未指定容量时的默认值，表示使用各存储实现自身的默认容量
+     */
+    private static final int DEFAULT_INITIAL_CAPACITY = -1;
+
+    private Map<String, Object> map;
+
+    /**
+     * 是否可能含有尚未解析的 {@link LazyValue}/{@link LazyNumber}，仅惰性解析模式下为 {@code true}
+     */
+    private transient boolean lazy;
+
+    /**
+     * 存储是否与 {@link #copyOnWriteClone()} 得到的其他对象共享；共享时修改或取出嵌套容器前需先复制存储，见 {@link #own()}
+     */
+    private transient boolean shared;
+
+    /**
+     * 冻结对象缓存的序列化结果与哈希值；不为 {@code null} 即表示已冻结
+     */
+    private transient SerializedForm form;
+
+    /**
+     * 增量序列化缓存的本层字节，修改后置为 {@code null}
+     */
+    private transient IncrementalWriter.Level serialized;
+
+    private transient boolean incremental;
+
+    /**
+     * 是否将 {@code getJSONObject}/{@code getJSONArray} 的转换结果写回，见 {@link #setMemoizeNested(boolean)}
+     */
+    private transient boolean memoizeNested;
+
+    /**
+     * 存储是否为调用方的 Map（见 {@link #wrap(Map, boolean)}），其中嵌套的普通 Map/List 在取出时才包装
+     */
+    private transient boolean view;
+
+    /**
+     * 是否已通过 {@link #getInnerMap()} 交出内部 Map，此后本层不再缓存增量序列化的字节
+     */
+    private transient boolean exposed;
 
     /**
      * 创建空的 JSONObject。
      */
     public JSONObject() {
-        this.map = new LinkedHashMap<>();
+        this(DEFAULT_INITIAL_CAPACITY, true);
     }
 
     /**
      * 根据已有 Map 创建 JSONObject，嵌套 Map/List 会自动转换为 JSONObject/JSONArray。
+     * <p>
+     * 启用 {@link ParserConfig#setWrapCollections(boolean)} 后不再复制，等同 {@link #wrap(Map, boolean)}。
+     * </p>
      *
      * @param map 源 Map，可为 {@code null}（等同空对象）
      */
     public JSONObject(Map<String, Object> map) {
-        this.map = new LinkedHashMap<>();
+        this(map, false);
+    }
+
+    private JSONObject(Map<String, Object> map, boolean wrap) {
+        if (wrap) {
+            this.map = map;
+            return;
+        }
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        if (map != null && config.isWrapCollections()) {
+            this.map = map;
+            this.view = true;
+            this.shared = config.isWrapCopyOnWrite();
+            return;
+        }
+        this.map = newMap(map == null ? DEFAULT_INITIAL_CAPACITY : map.size(), true);
         if (map != null) {
             for (Map.Entry<String, Object> entry : map.entrySet()) {
                 this.map.put(entry.getKey(), convertValue(entry.getValue()));
@@ -62,29 +155,106 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
     /**
      * 创建 JSONObject。
      *
-     * @param ordered 是否保持有序（当前实现均使用 LinkedHashMap）
+     * @param ordered 删除字段后是否仍保持插入顺序；{@code false} 时删除开销更低
      */
     public JSONObject(boolean ordered) {
-        this.map = ordered ? new LinkedHashMap<>() : new LinkedHashMap<>();
+        this(DEFAULT_INITIAL_CAPACITY, ordered);
     }
 
     /**
      * 创建指定初始容量的 JSONObject。
      *
-     * @param initialCapacity 初始容量
+     * @param initialCapacity 预期字段数
      */
     public JSONObject(int initialCapacity) {
-        this.map = new LinkedHashMap<>(initialCapacity);
+        this(initialCapacity, true);
     }
 
     /**
      * 创建指定初始容量的 JSONObject。
      *
-     * @param initialCapacity 初始容量
-     * @param ordered         是否保持有序（当前实现均使用 LinkedHashMap）
+     * @param initialCapacity 预期字段数
+     * @param ordered         删除字段后是否仍保持插入顺序；{@code false} 时删除开销更低
      */
     public JSONObject(int initialCapacity, boolean ordered) {
-        this.map = new LinkedHashMap<>(initialCapacity);
+        this.map = newMap(initialCapacity, ordered);
+    }
+
+    /**
+     * 以指定 Map 作为内部存储创建 JSONObject，不复制也不转换其中的值。
+     * <p>
+     * 供自定义存储实现（如列式数组的行视图）使用，调用方需保证嵌套容器已是
+     * {@link JSONObject}/{@link JSONArray}，且之后只通过返回的对象访问该 Map。
+     * </p>
+     *
+     * @param innerMap 内部存储
+     * @return 以 {@code innerMap} 为存储的 JSONObject
+     */
+    public static JSONObject wrapInnerMap(Map<String, Object> innerMap) {
+        if (innerMap == null) {
+            throw new IllegalArgumentException("innerMap is null");
+        }
+        return new JSONObject(innerMap, true);
+    }
+
+    /**
+     * 返回以 {@code map} 为存储的视图，不复制也不转换，耗时与 Map 大小无关。
+     *
+     * @param map 源 Map
+     * @return 写入直接作用于 {@code map} 的视图
+     * @see #wrap(Map, boolean)
+     */
+    public static JSONObject wrap(Map<String, Object> map) {
+        return wrap(map, false);
+    }
+
+    /**
+     * 返回以 {@code map} 为存储的视图，不复制也不转换，耗时与 Map 大小无关。
+     * <p>
+     * 嵌套的普通 Map/List 在通过 {@link #get(Object)}、{@link #getJSONObject(String)} 等取出时才包装为同样的视图；
+     * {@code entrySet}、{@code values} 等返回源 Map 中的原始值，与 fastjson 一致。
+     * {@code copyOnWrite} 为 {@code false} 时，写入直接作用于源 Map 及其嵌套集合；为 {@code true} 时，
+     * 第一次写入或取出嵌套容器前先浅复制当前这一层，嵌套集合同样写时复制，源集合始终不被修改。
+     * 调用方在包装后直接修改源集合，视图中可见（写时复制的层除外）。
+     * </p>
+     *
+     * @param map         源 Map
+     * @param copyOnWrite 写入时是否先复制
+     * @return 视图
+     */
+    public static JSONObject wrap(Map<String, Object> map, boolean copyOnWrite) {
+        if (map == null) {
+            throw new IllegalArgumentException("map is null");
+        }
+        JSONObject object = new JSONObject(map, true);
+        object.view = true;
+        object.shared = copyOnWrite;
+        return object;
+    }
+
+    /**
+     * 将普通 Map/List 包装为视图，其他值原样返回。
+     *
+     * @param value       任意值
+     * @param copyOnWrite 写入时是否先复制
+     * @return 视图或原值
+     */
+    @SuppressWarnings("unchecked")
+    static Object wrapNested(Object value, boolean copyOnWrite) {
+        if (value instanceof Map && !(value instanceof JSONObject)) {
+            return wrap((Map<String, Object>) value, copyOnWrite);
+        }
+        if (value instanceof List && !(value instanceof JSONArray)) {
+            return JSONArray.wrap((List<Object>) value, copyOnWrite);
+        }
+        return value;
+    }
+
+    private static Map<String, Object> newMap(int initialCapacity, boolean ordered) {
+        if (ParserConfig.getGlobalInstance().isUseLinkedHashMap()) {
+            return initialCapacity < 0 ? new LinkedHashMap<>() : new LinkedHashMap<>(initialCapacity);
+        }
+        return new CompactMap(initialCapacity < 0 ? CompactMap.DEFAULT_CAPACITY : initialCapacity, ordered);
     }
 
     /**
@@ -173,6 +343,7 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      */
     @Override
     public boolean containsValue(Object value) {
+        inflate();
         return map.containsValue(value);
     }
 
@@ -181,7 +352,31 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      */
     @Override
     public Object get(Object key) {
-        return map.get(key);
+        Object value = map.get(key);
+        if (value instanceof LazyValue || value instanceof LazyNumber) {
+            value = resolve(value);
+            map.put((String) key, value);
+            serialized = null;
+        } else if (shared && (value instanceof Map || value instanceof List)) {
+            own();
+            value = map.get(key);
+        } else if (view) {
+            value = wrapNested(value, false);
+        }
+        return value;
+    }
+
+    /**
+     * 读取供数值 getter 使用的值：尚未解码的 {@link LazyNumber} 原样返回，由调用方直接取基本类型值。
+     */
+    private Object getNumber(String key) {
+        Object value = map.get(key);
+        if (value instanceof LazyValue) {
+            value = ((LazyValue) value).getValue();
+            map.put(key, value);
+            serialized = null;
+        }
+        return value;
     }
 
     /**
@@ -193,7 +388,12 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      */
     @Override
     public Object put(String key, Object value) {
-        return map.put(key, convertValue(value));
+        beforeWrite();
+        if (value instanceof LazyValue || value instanceof LazyNumber) {
+            lazy = true;
+            return resolve(map.put(key, value));
+        }
+        return resolve(map.put(key, convertValue(value)));
     }
 
     /**
@@ -201,7 +401,8 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      */
     @Override
     public Object remove(Object key) {
-        return map.remove(key);
+        beforeWrite();
+        return resolve(map.remove(key));
     }
 
     /**
@@ -222,6 +423,7 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      */
     @Override
     public void clear() {
+        beforeWrite();
         map.clear();
     }
 
@@ -230,7 +432,13 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      */
     @Override
     public Set<String> keySet() {
-        return map.keySet();
+        if (form != null) {
+            return Collections.unmodifiableSet(map.keySet());
+        }
+        if (shared) {
+            own();
+        }
+        return InvalidatingViews.set(map.keySet(), this::invalidate);
     }
 
     /**
@@ -238,7 +446,14 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      */
     @Override
     public Collection<Object> values() {
-        return map.values();
+        if (form != null) {
+            return Collections.unmodifiableCollection(map.values());
+        }
+        if (shared) {
+            own();
+        }
+        inflate();
+        return InvalidatingViews.collection(map.values(), this::invalidate);
     }
 
     /**
@@ -246,7 +461,134 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      */
     @Override
     public Set<Entry<String, Object>> entrySet() {
-        return map.entrySet();
+        if (form != null) {
+            return Collections.unmodifiableMap(map).entrySet();
+        }
+        if (shared) {
+            own();
+        }
+        inflate();
+        return InvalidatingViews.entrySet(map.entrySet(), this::invalidate);
+    }
+
+    private static Object resolve(Object value) {
+        if (value instanceof LazyValue) {
+            return ((LazyValue) value).getValue();
+        }
+        if (value instanceof LazyNumber) {
+            return ((LazyNumber) value).decimalValue();
+        }
+        return value;
+    }
+
+    /**
+     * 复制共享的存储，使之后的修改只作用于当前对象；嵌套容器替换为各自的写时复制克隆，
+     * 视图中的普通 Map/List 替换为写时复制的视图。
+     */
+    private void own() {
+        Map<String, Object> copy = map instanceof CompactMap ? ((CompactMap) map).copy() : new LinkedHashMap<>(map);
+        for (Map.Entry<String, Object> entry : copy.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof JSONObject) {
+                entry.setValue(((JSONObject) value).copyOnWriteClone());
+            } else if (value instanceof JSONArray) {
+                entry.setValue(((JSONArray) value).copyOnWriteClone());
+            } else if (view) {
+                entry.setValue(wrapNested(value, true));
+            }
+        }
+        map = copy;
+        shared = false;
+        view = false;
+        exposed = false;
+        serialized = null;
+    }
+
+    /**
+     * 本层能否缓存增量序列化的字节：调用方集合的视图（见 {@link #wrap(Map, boolean)}）与交出过内部 Map
+     * （见 {@link #getInnerMap()}）的对象可能被绕过修改，不缓存。
+     */
+    boolean isCacheable() {
+        return !view && !exposed;
+    }
+
+    /**
+     * 经 {@code entrySet} 等视图写入前调用，丢弃增量序列化缓存。
+     */
+    private void invalidate() {
+        serialized = null;
+    }
+
+    /**
+     * 修改存储前调用：已冻结时拒绝修改，存储共享时先复制。
+     */
+    private void beforeWrite() {
+        if (form != null) {
+            throw new UnsupportedOperationException("JSONObject is frozen");
+        }
+        serialized = null;
+        if (shared) {
+            own();
+        }
+    }
+
+    /**
+     * 返回增量序列化缓存的本层字节。
+     *
+     * @return 未缓存或已修改时返回 {@code null}
+     */
+    IncrementalWriter.Level serializedLevel() {
+        return serialized;
+    }
+
+    /**
+     * 保存增量序列化生成的本层字节。
+     *
+     * @param level 本层字节
+     */
+    void serializedLevel(IncrementalWriter.Level level) {
+        serialized = level;
+    }
+
+    /**
+     * 标记为冻结，仅由 {@link DeepCopier} 在构建完冻结副本后调用。
+     */
+    void markFrozen() {
+        form = new SerializedForm();
+    }
+
+    /**
+     * 返回冻结对象缓存的序列化结果。
+     *
+     * @return 未冻结时返回 {@code null}
+     */
+    SerializedForm frozenForm() {
+        return form;
+    }
+
+    /**
+     * 返回内部存储供 {@link DeepCopier} 只读访问，不触发写时复制。
+     */
+    Map<String, Object> storage() {
+        inflate();
+        return map;
+    }
+
+    /**
+     * 解析所有尚未解析的惰性值，之后内部存储中只包含普通值。
+     */
+    private void inflate() {
+        if (!lazy) {
+            return;
+        }
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof LazyValue || value instanceof LazyNumber) {
+                entry.setValue(resolve(value));
+            }
+        }
+        lazy = false;
+        serialized = null;
     }
 
     /**
@@ -310,7 +652,7 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      * @return 整数值；无法转换时返回 {@code null}
      */
     public Integer getInteger(String key) {
-        return TypeUtils.castToInt(get(key));
+        return TypeUtils.castToInt(getNumber(key));
     }
 
     /**
@@ -320,7 +662,7 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      * @return int 值
      */
     public int getIntValue(String key) {
-        return TypeUtils.castToIntValue(get(key));
+        return TypeUtils.castToIntValue(getNumber(key));
     }
 
     /**
@@ -330,7 +672,7 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      * @return 长整型值；无法转换时返回 {@code null}
      */
     public Long getLong(String key) {
-        return TypeUtils.castToLong(get(key));
+        return TypeUtils.castToLong(getNumber(key));
     }
 
     /**
@@ -340,7 +682,7 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      * @return long 值
      */
     public long getLongValue(String key) {
-        return TypeUtils.castToLongValue(get(key));
+        return TypeUtils.castToLongValue(getNumber(key));
     }
 
     /**
@@ -370,7 +712,7 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      * @return 浮点值；无法转换时返回 {@code null}
      */
     public Float getFloat(String key) {
-        return TypeUtils.castToFloat(get(key));
+        return TypeUtils.castToFloat(getNumber(key));
     }
 
     /**
@@ -391,7 +733,7 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      * @return 双精度值；无法转换时返回 {@code null}
      */
     public Double getDouble(String key) {
-        return TypeUtils.castToDouble(get(key));
+        return TypeUtils.castToDouble(getNumber(key));
     }
 
     /**
@@ -401,7 +743,7 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      * @return double 值
      */
     public double getDoubleValue(String key) {
-        return TypeUtils.castToDoubleValue(get(key));
+        return TypeUtils.castToDoubleValue(getNumber(key));
     }
 
     /**
@@ -411,7 +753,11 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      * @return BigDecimal 值；无法转换时返回 {@code null}
      */
     public BigDecimal getBigDecimal(String key) {
-        return TypeUtils.castToBigDecimal(get(key));
+        Object value = getNumber(key);
+        if (value instanceof LazyNumber) {
+            return ((LazyNumber) value).decimalValue();
+        }
+        return TypeUtils.castToBigDecimal(value);
     }
 
     /**
@@ -438,23 +784,90 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
     /**
      * 获取嵌套的 {@link JSONObject}。
      * <p>若值为 Map 或 JSON 字符串，会自动转换。</p>
+     * <p>
+     * 对当前对象启用 {@link #setMemoizeNested(boolean)} 后，转换结果写回当前对象，之后的调用直接返回同一个实例。
+     * </p>
      *
      * @param key 键
      * @return {@link JSONObject}；不存在或无法转换时返回 {@code null}
      */
     public JSONObject getJSONObject(String key) {
-        return TypeUtils.castToJSONObject(get(key));
+        Object value = get(key);
+        if (value instanceof JSONObject) {
+            return (JSONObject) value;
+        }
+        boolean memoize = memoizable(value, '{');
+        JSONObject result = TypeUtils.castToJSONObject(value);
+        if (memoize) {
+            memoize(key, value, result);
+        }
+        return result;
     }
 
     /**
      * 获取嵌套的 {@link JSONArray}。
      * <p>若值为 List 或 JSON 字符串，会自动转换。</p>
+     * <p>
+     * 对当前对象启用 {@link #setMemoizeNested(boolean)} 后，转换结果写回当前对象，之后的调用直接返回同一个实例。
+     * </p>
      *
      * @param key 键
      * @return {@link JSONArray}；不存在或无法转换时返回 {@code null}
      */
     public JSONArray getJSONArray(String key) {
-        return TypeUtils.castToJSONArray(get(key));
+        Object value = get(key);
+        if (value instanceof JSONArray) {
+            return (JSONArray) value;
+        }
+        boolean memoize = memoizable(value, '[');
+        JSONArray result = TypeUtils.castToJSONArray(value);
+        if (memoize) {
+            memoize(key, value, result);
+        }
+        return result;
+    }
+
+    /**
+     * 在转换前判断结果是否应写回：当前对象已启用、可修改且不是调用方集合的视图，
+     * 值为普通集合或首个非空白字符为 {@code open} 的字符串。
+     */
+    private boolean memoizable(Object value, char open) {
+        if (!memoizeNested || form != null || view) {
+            return false;
+        }
+        if (value instanceof Map || value instanceof Collection) {
+            return true;
+        }
+        if (!(value instanceof String)) {
+            return false;
+        }
+        String text = (String) value;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c > ' ') {
+                return c == open;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 以转换结果替换原值；其间值已被替换时放弃。
+     */
+    private void memoize(String key, Object value, Object converted) {
+        if (converted == null) {
+            return;
+        }
+        if (shared) {
+            own();
+        }
+        if (map.get(key) == value) {
+            map.put(key, converted);
+            serialized = null;
+            if (converted instanceof JSONObject) {
+                ((JSONObject) converted).memoizeNested = true;
+            }
+        }
     }
 
     /**
@@ -473,7 +886,7 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
         if (clazz.isInstance(value)) {
             return clazz.cast(value);
         }
-        return JSON.parseObject(JSON.toJSONString(value), clazz);
+        return JSON.toJavaObject(value, clazz);
     }
 
     /**
@@ -487,6 +900,24 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
         return JSON.toJavaObject(this, clazz);
     }
 
+    /**
+     * 返回内部存储 Map（不复制），与 fastjson 一致。直接写入内部 Map 不会自动包装嵌套 Map/List。
+     *
+     * @return 内部 Map
+     */
+    public Map<String, Object> getInnerMap() {
+        if (form != null) {
+            return Collections.unmodifiableMap(map);
+        }
+        serialized = null;
+        if (shared) {
+            own();
+        }
+        inflate();
+        exposed = true;
+        return map;
+    }
+
     /**
      * 将当前 JSONObject 序列化为 JSON 字节数组。
      *
@@ -498,26 +929,162 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
     }
 
     /**
-     * 深拷贝当前 JSONObject（嵌套对象递归克隆）。
+     * 深拷贝当前 JSONObject，等同 {@link #deepClone()}。
      *
      * @return 克隆后的新对象
      */
     @Override
     public JSONObject clone() {
-        JSONObject clone = new JSONObject();
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
-            Object value = entry.getValue();
-            if (value instanceof JSONObject) {
-                clone.put(entry.getKey(), ((JSONObject) value).clone());
-            } else if (value instanceof JSONArray) {
-                clone.put(entry.getKey(), ((JSONArray) value).clone());
-            } else {
-                clone.put(entry.getKey(), value);
-            }
+        return deepClone();
+    }
+
+    /**
+     * 写时复制地克隆当前 JSONObject，耗时与字段数无关。
+     * <p>
+     * 克隆体与原对象共享存储，双方互不可见对方之后的修改：任一方写入、删除，或通过 getter、{@code entrySet}
+     * 等取出嵌套对象/数组时，先复制自身这一层存储，嵌套容器同样写时复制。
+     * 以 {@link #wrapInnerMap(Map)} 包装的自定义存储与 {@link #wrap(Map, boolean)} 视图无法共享，退化为深拷贝。
+     * </p>
+     * <p>
+     * 调用前已从当前对象取得（或由调用方放入）的嵌套对象/数组引用仍指向双方共享的节点，通过它修改会同时影响双方，
+     * 只有在不再通过这类引用修改时才应使用本方法，否则使用 {@link #clone()}。
+     * 未冻结的对象在本方法中会被标记为共享，之后的读取也可能复制其存储，因此本方法与写操作一样不能与对当前对象的
+     * 其他访问并发执行；冻结对象不会被修改，可在多个线程中同时调用。
+     * </p>
+     *
+     * @return 写时复制的新对象
+     */
+    public JSONObject copyOnWriteClone() {
+        Class<?> type = map.getClass();
+        if (view || type != CompactMap.class && type != LinkedHashMap.class) {
+            return deepClone();
         }
+        inflate();
+        // 冻结对象不会再修改，无需复制自身的存储
+        if (form == null) {
+            shared = true;
+        }
+        JSONObject clone = new JSONObject(map, true);
+        clone.shared = true;
         return clone;
     }
 
+    /**
+     * 返回深度不可变的冻结副本，可在多个线程间共享。
+     * <p>
+     * 副本及其中所有嵌套对象/数组的修改方法均抛出 {@link UnsupportedOperationException}，读取方法不会修改内部状态；
+     * 不带序列化特性的 JSON 字节、字符串与哈希值在首次计算后缓存，{@link #toJSONString()}、{@link #hashCode()}、
+     * {@link JSON#toJSONBytes(Object)}、{@link JSON#writeJSONString(java.io.OutputStream, Object, SerializerFeature...)}
+     * 直接复用缓存。已冻结的嵌套容器直接复用，不再复制；当前对象已冻结时返回自身。
+     * 字符串、数值、布尔值以外可被修改的值（Java Bean、{@link java.util.Date}、数组、Set 等）在冻结时按其序列化结果
+     * 转换为 JSON 值，例如 Bean 转为 {@link JSONObject}、日期转为时间戳，之后修改原对象不影响冻结副本。
+     * 需要修改时可对冻结对象调用 {@link #copyOnWriteClone()} 得到写时复制的可变副本。
+     * </p>
+     *
+     * @return 冻结的副本
+     */
+    public JSONObject freeze() {
+        return form != null ? this : (JSONObject) DeepCopier.freeze(this);
+    }
+
+    /**
+     * 是否启用增量序列化。
+     *
+     * @return 启用返回 {@code true}
+     * @see #setIncrementalSerialization(boolean)
+     */
+    public boolean isIncrementalSerialization() {
+        return incremental;
+    }
+
+    /**
+     * 设置以当前对象为根序列化时是否启用增量序列化。
+     * <p>
+     * 启用后，不带序列化特性的 {@link #toJSONString()}、{@link JSON#toJSONBytes(Object)}、
+     * {@link JSON#writeJSONString(java.io.OutputStream, Object, SerializerFeature...)} 会为树中每个对象/数组缓存
+     * 自身这一层的字节；{@code put}/{@code remove}/{@code set}/{@code add} 等修改只使所在的一层失效，
+     * 再次序列化时只重新生成失效的层，其余子树直接拼接缓存的字节，输出与未启用时相同。
+     * 缓存总量约为一份序列化结果，适合“读取大文档、少量修改、再转发”的场景。
+     * 经 {@code entrySet}、{@code keySet}、{@code values} 及其迭代器写入同样会使该层失效；
+     * 取出 {@link #getInnerMap()} 后该层不再缓存。关闭后不再使用缓存。
+     * </p>
+     *
+     * @param incremental 是否启用
+     * @throws UnsupportedOperationException 对象已冻结时抛出（冻结对象总是缓存完整的序列化结果）
+     */
+    public void setIncrementalSerialization(boolean incremental) {
+        if (form != null) {
+            throw new UnsupportedOperationException("JSONObject is frozen");
+        }
+        this.incremental = incremental;
+        if (!incremental) {
+            serialized = null;
+        }
+    }
+
+    /**
+     * 是否将嵌套值的转换结果写回当前对象。
+     *
+     * @return 启用返回 {@code true}
+     * @see #setMemoizeNested(boolean)
+     */
+    public boolean isMemoizeNested() {
+        return memoizeNested;
+    }
+
+    /**
+     * 设置是否将当前对象中 {@link #getJSONObject(String)}/{@link #getJSONArray(String)} 的转换结果写回当前对象。
+     * <p>
+     * 默认每次调用都重新转换值为普通 Map/List 或 JSON 字符串的字段：前者复制一遍，后者重新解析。
+     * 启用后第一次转换的结果替换原值，之后的调用直接返回同一个实例，对结果的修改也反映在当前对象中；
+     * 写回的 JSONObject 同样启用本设置。字符串在转换前先检查首个非空白字符是否为 {@code '{'}/{@code '['}，
+     * 不是则按原方式转换且不写回。
+     * 注意写回后该字段序列化为嵌套的对象/数组而不再是字符串，因此只应对可以接受这一变化的对象启用。
+     * {@link #wrap(Map, boolean)} 视图不写回。
+     * </p>
+     *
+     * @param memoizeNested 是否启用
+     * @throws UnsupportedOperationException 对象已冻结时抛出
+     */
+    public void setMemoizeNested(boolean memoizeNested) {
+        if (form != null) {
+            throw new UnsupportedOperationException("JSONObject is frozen");
+        }
+        this.memoizeNested = memoizeNested;
+    }
+
+    /**
+     * 是否为 {@link #freeze()} 得到的冻结对象。
+     *
+     * @return 已冻结返回 {@code true}
+     */
+    public boolean isFrozen() {
+        return form != null;
+    }
+
+    /**
+     * 深拷贝当前 JSONObject，嵌套对象/数组全部递归复制。
+     *
+     * @return 与当前对象完全独立的副本
+     */
+    public JSONObject deepClone() {
+        return deepClone(false);
+    }
+
+    /**
+     * 深拷贝当前 JSONObject，可选并行复制。
+     * <p>
+     * {@code parallel} 为 {@code true} 时使用 ForkJoin 公共池，元素较多的嵌套数组按区间拆分、
+     * 较大的嵌套容器各自作为子任务复制；规模较小的子树仍顺序复制。适合非常大的树。
+     * </p>
+     *
+     * @param parallel 是否允许并行复制
+     * @return 与当前对象完全独立的副本
+     */
+    public JSONObject deepClone(boolean parallel) {
+        return (JSONObject) (parallel ? DeepCopier.parallelCopy(this) : DeepCopier.copy(this));
+    }
+
     /**
      * 返回 JSON 字符串，等价于 {@link #toJSONString()}。
      */
@@ -534,8 +1101,14 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
         if (this == obj) {
             return true;
         }
+        inflate();
         if (obj instanceof JSONObject) {
-            return map.equals(((JSONObject) obj).map);
+            JSONObject other = (JSONObject) obj;
+            other.inflate();
+            if (form != null && other.form != null && hashCode() != other.hashCode()) {
+                return false;
+            }
+            return map.equals(other.map);
         }
         if (obj instanceof Map) {
             return map.equals(obj);
@@ -548,6 +1121,53 @@ public class JSONObject extends JSON implements Map<String, Object>, Cloneable,
      */
     @Override
     public int hashCode() {
+        if (form != null) {
+            return form.hash(map::hashCode);
+        }
+        inflate();
         return map.hashCode();
     }
+
+    /**
+     * 以 JSON 对象形式写出全部字段；未解析的惰性子树在条件允许时原样写出，见 {@link LazyValue#canWriteRaw}。
+     *
+     * @param gen      JSON 生成器
+     * @param provider 序列化上下文
+     * @throws IOException 写出失败时抛出
+     */
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+        provider.findValueSerializer(map.getClass(), null).serialize(map, gen, provider);
+    }
+
+    /**
+     * 写出带类型信息的 JSON 对象，类型标识为当前 {@link JSONObject} 类。
+     *
+     * @param gen      JSON 生成器
+     * @param provider 序列化上下文
+     * @param typeSer  类型序列化器
+     * @throws IOException 写出失败时抛出
+     */
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer)
+            throws IOException {
+        JsonSerializer<Object> serializer = provider.findValueSerializer(map.getClass(), null);
+        JsonSerializer<?> mapSerializer = serializer;
+        if (!(mapSerializer instanceof MapSerializer)) {
+            serializer.serializeWithType(map, gen, provider, typeSer);
+            return;
+        }
+        WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(this, JsonToken.START_OBJECT));
+        ((MapSerializer) mapSerializer).serializeWithoutTypeInfo(map, gen, provider);
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // 共享的存储若一并写出，反序列化后两个对象会共用同一个 Map
+        if (shared) {
+            own();
+        }
+        inflate();
+        out.defaultWriteObject();
+    }
 }
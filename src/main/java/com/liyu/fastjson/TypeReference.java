@@ -1,7 +1,19 @@
 package com.liyu.fastjson;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.liyu.fastjson.support.GenericArrayTypeImpl;
+import com.liyu.fastjson.support.JavaTypeCache;
+import com.liyu.fastjson.support.ParameterizedTypeImpl;
+import com.liyu.fastjson.support.WildcardTypeImpl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 泛型类型引用，用于在运行时保留泛型参数信息。
@@ -15,25 +27,87 @@ import java.lang.reflect.Type;
  * Map<String, User> map = JSON.parseObject(json, new TypeReference<Map<String, User>>() {});
  * }</pre>
  *
+ * <p>
+ * 同一子类的泛型参数只解析一次，对应的 Jackson 类型也会被缓存，可放心在热点代码中匿名创建。
+ * </p>
+ *
  * @param <T> 被引用的目标类型
  * @see JSON#parseObject(String, TypeReference)
  */
 public abstract class TypeReference<T> {
 
+    /**
+     * 子类 → 捕获到的泛型参数，同一匿名子类只通过反射解析一次
+     */
+    private static final ClassValue<Type> CAPTURED_TYPES = new ClassValue<Type>() {
+        @Override
+        protected Type computeValue(Class<?> type) {
+            Type superClass = type.getGenericSuperclass();
+            if (superClass instanceof ParameterizedType) {
+                return ((ParameterizedType) superClass).getActualTypeArguments()[0];
+            }
+            throw new JSONException("TypeReference requires type parameter");
+        }
+    };
+
+    private static final int MAX_INTERNED_TYPES = 1024;
+
+    /**
+     * 由 {@link #TypeReference(Type...)} 拼装出的泛型类型，驻留后相同类型共享同一实例；
+     * 与 {@link JavaTypeCache} 相同，按锚定类（{@link JavaTypeCache#anchorOf(Type)}）分别保存在 {@link ClassValue} 中，
+     * 随应用类加载器一起回收；每个锚定类最多保留 {@value #MAX_INTERNED_TYPES} 个，超出后不再驻留
+     */
+    private static final ClassValue<ConcurrentMap<Type, Type>> INTERNED_TYPES =
+            new ClassValue<ConcurrentMap<Type, Type>>() {
+                @Override
+                protected ConcurrentMap<Type, Type> computeValue(Class<?> anchor) {
+                    return new ConcurrentHashMap<>(16, 0.75f, 1);
+                }
+            };
+
     private final Type type;
 
+    private volatile JavaType javaType;
+
     /**
      * 由子类匿名实例化时自动解析泛型参数，请勿直接调用。
      *
      * @throws JSONException 若子类未指定泛型参数
      */
     protected TypeReference() {
-        Type superClass = getClass().getGenericSuperclass();
-        if (superClass instanceof ParameterizedType) {
-            this.type = ((ParameterizedType) superClass).getActualTypeArguments()[0];
-        } else {
-            throw new JSONException("TypeReference requires type parameter");
+        this.type = CAPTURED_TYPES.get(getClass());
+    }
+
+    /**
+     * 由子类匿名实例化，并按出现顺序以 {@code actualTypeArguments} 替换泛型参数中的类型变量。
+     *
+     * <pre>{@code
+     * public static <T> Result<T> parse(String json, Class<T> clazz) {
+     *     return JSON.parseObject(json, new TypeReference<Result<T>>(clazz) {});
+     * }
+     * }</pre>
+     *
+     * @param actualTypeArguments 依次替换类型变量的实际类型
+     * @throws JSONException 若子类未指定泛型参数
+     */
+    protected TypeReference(Type... actualTypeArguments) {
+        Type captured = CAPTURED_TYPES.get(getClass());
+        if (captured instanceof Class || actualTypeArguments == null || actualTypeArguments.length == 0) {
+            this.type = captured;
+            return;
+        }
+        Type resolved = substitute(captured, actualTypeArguments, new int[1]);
+        Class<?> anchor = JavaTypeCache.anchorOf(resolved);
+        if (anchor == null) {
+            this.type = resolved;
+            return;
+        }
+        ConcurrentMap<Type, Type> interned = INTERNED_TYPES.get(anchor);
+        Type existing = interned.get(resolved);
+        if (existing == null && interned.size() < MAX_INTERNED_TYPES) {
+            existing = interned.putIfAbsent(resolved, resolved);
         }
+        this.type = existing != null ? existing : resolved;
     }
 
     /**
@@ -44,4 +118,53 @@ public abstract class TypeReference<T> {
     public Type getType() {
         return type;
     }
+
+    /**
+     * 返回解析后的 Jackson 类型，首次调用时解析并缓存。
+     *
+     * @return JavaType
+     */
+    JavaType getJavaType() {
+        JavaType resolved = javaType;
+        if (resolved == null) {
+            resolved = JavaTypeCache.of(type);
+            javaType = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * 按出现顺序替换类型中的类型变量，递归处理参数化类型、泛型数组与通配符的边界
+     */
+    private static Type substitute(Type type, Type[] actualTypeArguments, int[] next) {
+        if (type instanceof TypeVariable) {
+            return next[0] < actualTypeArguments.length ? actualTypeArguments[next[0]++] : type;
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Type[] args = substituteAll(parameterized.getActualTypeArguments(), actualTypeArguments, next);
+            return new ParameterizedTypeImpl(args, parameterized.getOwnerType(), parameterized.getRawType());
+        }
+        if (type instanceof GenericArrayType) {
+            Type component = substitute(((GenericArrayType) type).getGenericComponentType(), actualTypeArguments, next);
+            // 与 JDK 一致，元素类型为 Class 时使用对应的数组 Class
+            return component instanceof Class
+                    ? Array.newInstance((Class<?>) component, 0).getClass()
+                    : new GenericArrayTypeImpl(component);
+        }
+        if (type instanceof WildcardType) {
+            WildcardType wildcard = (WildcardType) type;
+            Type[] upper = substituteAll(wildcard.getUpperBounds(), actualTypeArguments, next);
+            Type[] lower = substituteAll(wildcard.getLowerBounds(), actualTypeArguments, next);
+            return new WildcardTypeImpl(upper, lower);
+        }
+        return type;
+    }
+
+    private static Type[] substituteAll(Type[] types, Type[] actualTypeArguments, int[] next) {
+        for (int i = 0; i < types.length; i++) {
+            types[i] = substitute(types[i], actualTypeArguments, next);
+        }
+        return types;
+    }
 }
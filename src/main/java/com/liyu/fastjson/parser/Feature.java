@@ -138,6 +138,35 @@ public enum Feature {
      */
     UseLongForInts;
 
+    /**
+     * 特性对应的位掩码，等于 {@code 1 << ordinal()}
+     */
+    public final int mask;
+
+    Feature() {
+        mask = 1 << ordinal();
+    }
+
+    /**
+     * 返回特性对应的位掩码。
+     *
+     * @return 位掩码
+     */
+    public final int getMask() {
+        return mask;
+    }
+
+    /**
+     * 判断位掩码中是否包含指定特性。
+     *
+     * @param features 特性位掩码
+     * @param feature  待判断的特性
+     * @return 包含返回 {@code true}
+     */
+    public static boolean isEnabled(int features, Feature feature) {
+        return (features & feature.mask) != 0;
+    }
+
     /**
      * 将多个特性合并为位掩码整数，与 fastjson 行为保持一致。
      *
@@ -150,7 +179,7 @@ public enum Feature {
         }
         int value = 0;
         for (Feature feature : features) {
-            value |= 1 << feature.ordinal();
+            value |= feature.mask;
         }
         return value;
     }
@@ -0,0 +1,224 @@
+package com.liyu.fastjson.parser;
+
+import com.liyu.fastjson.support.StringCanonicalizer;
+
+/**
+ * 解析全局配置，对应 fastjson {@code com.alibaba.fastjson.parser.ParserConfig}。
+ * <p>
+ * 这里只保留影响 {@link com.liyu.fastjson.JSONObject}/{@link com.liyu.fastjson.JSONArray}
+ * 内部表示方式的开关，均默认关闭，需要时通过 {@link #getGlobalInstance()} 显式开启。
+ * 配置对之后发生的解析调用生效，可在运行期修改。
+ * </p>
+ *
+ * <pre>{@code
+ * ParserConfig.getGlobalInstance().setLazyObject(true);
+ * JSONObject event = JSON.parseObject(text);   // 嵌套对象/数组在首次访问时才解析
+ * }</pre>
+ */
+public class ParserConfig {
+
+    private static final ParserConfig GLOBAL = new ParserConfig();
+
+    private volatile boolean lazyObject;
+
+    private volatile boolean useLinkedHashMap;
+
+    private volatile boolean lazyNumber;
+
+    private volatile boolean columnarArray;
+
+    private volatile StringCanonicalizer stringCanonicalizer;
+
+    private volatile boolean wrapCollections;
+
+    private volatile boolean wrapCopyOnWrite;
+
+    /**
+     * 返回全局共享的配置实例。
+     *
+     * @return 全局配置
+     */
+    public static ParserConfig getGlobalInstance() {
+        return GLOBAL;
+    }
+
+    /**
+     * 是否启用惰性对象解析。
+     *
+     * @return 启用返回 {@code true}
+     * @see #setLazyObject(boolean)
+     */
+    public boolean isLazyObject() {
+        return lazyObject;
+    }
+
+    /**
+     * 设置是否启用惰性对象解析。
+     * <p>
+     * 启用后，{@code JSON.parse}/{@code JSON.parseObject} 解析出的 {@link com.liyu.fastjson.JSONObject}
+     * 只记录嵌套对象/数组在原始输入中的区间，直到通过 getter、{@code entrySet} 等访问时才解析；
+     * 未被访问过的子树在序列化时原样写出。适合只读取少量字段的大报文。
+     * </p>
+     * <p>
+     * 注意：子树在首次被 {@code get}、{@code equals}、{@code hashCode}、{@code entrySet} 等读取时解析并写回对象的内部存储，
+     * 读取操作因此会修改对象。未启用时可以不加同步地在多个线程间共享只读的解析结果，启用后不再安全：
+     * 需要共享时应在外部同步，或先调用 {@code JSONObject.freeze()} 得到已完全解析、可在线程间共享的副本。
+     * </p>
+     *
+     * @param lazyObject 是否启用
+     */
+    public void setLazyObject(boolean lazyObject) {
+        this.lazyObject = lazyObject;
+    }
+
+    /**
+     * 新建的 {@link com.liyu.fastjson.JSONObject} 是否使用 {@link java.util.LinkedHashMap} 存储。
+     *
+     * @return 使用返回 {@code true}
+     * @see #setUseLinkedHashMap(boolean)
+     */
+    public boolean isUseLinkedHashMap() {
+        return useLinkedHashMap;
+    }
+
+    /**
+     * 设置新建的 {@link com.liyu.fastjson.JSONObject} 是否回退为 {@link java.util.LinkedHashMap} 存储。
+     * <p>
+     * 默认使用紧凑的数组存储 {@link com.liyu.fastjson.support.CompactMap}，每个字段不再需要单独的 Entry 对象；
+     * 开启后恢复旧实现（无论是否要求有序均使用 {@code LinkedHashMap}），仅影响之后创建的对象。
+     * </p>
+     *
+     * @param useLinkedHashMap 是否使用 LinkedHashMap
+     */
+    public void setUseLinkedHashMap(boolean useLinkedHashMap) {
+        this.useLinkedHashMap = useLinkedHashMap;
+    }
+
+    /**
+     * 是否启用小数延迟解码。
+     *
+     * @return 启用返回 {@code true}
+     * @see #setLazyNumber(boolean)
+     */
+    public boolean isLazyNumber() {
+        return lazyNumber;
+    }
+
+    /**
+     * 设置是否启用小数延迟解码。
+     * <p>
+     * 启用后，解析 {@link com.liyu.fastjson.JSONObject}/{@link com.liyu.fastjson.JSONArray} 时小数不再立即构建
+     * {@link java.math.BigDecimal}，而是保存为非标度整数加标度（位数较多时保存原始文本），
+     * {@code getIntValue}/{@code getDoubleValue} 等直接由其计算，{@code get}/{@code getBigDecimal} 时才创建
+     * {@code BigDecimal}，返回值与未启用时相同。适合数值密集、只读取少量字段的报文。
+     * </p>
+     * <p>
+     * 与 {@link #setLazyObject(boolean)} 相同，{@code get} 等读取会把解码结果写回对象，启用后解析结果不能不加同步地
+     * 被多个线程同时读取。
+     * </p>
+     *
+     * @param lazyNumber 是否启用
+     */
+    public void setLazyNumber(boolean lazyNumber) {
+        this.lazyNumber = lazyNumber;
+    }
+
+    /**
+     * 是否以列式存储解析得到的同构对象数组。
+     *
+     * @return 启用返回 {@code true}
+     * @see #setColumnarArray(boolean)
+     */
+    public boolean isColumnarArray() {
+        return columnarArray;
+    }
+
+    /**
+     * 设置是否以列式存储解析得到的同构对象数组。
+     * <p>
+     * 启用后，元素全部是键序列相同的对象且数量足够多的数组按字段分列保存：数值列使用基本类型数组，
+     * 字符串列使用字典编码，元素对象是写回列数据的视图；{@code JSONArray.getLongColumn}、{@code sum} 等方法
+     * 直接扫描列数据。适合在内存中长期持有大量同构记录的场景。
+     * </p>
+     *
+     * @param columnarArray 是否启用
+     */
+    public void setColumnarArray(boolean columnarArray) {
+        this.columnarArray = columnarArray;
+    }
+
+    /**
+     * 返回解析字符串值时使用的规范化表。
+     *
+     * @return 规范化表；未启用时返回 {@code null}
+     * @see #setStringCanonicalizer(StringCanonicalizer)
+     */
+    public StringCanonicalizer getStringCanonicalizer() {
+        return stringCanonicalizer;
+    }
+
+    /**
+     * 设置解析字符串值时使用的规范化表，{@code null} 表示不启用（默认）。
+     * <p>
+     * 启用后，解析 {@link com.liyu.fastjson.JSONObject}/{@link com.liyu.fastjson.JSONArray} 时不超过最大长度的
+     * 字符串值经规范化表去重，重复出现的值共享同一个实例，不再各自创建 {@code String}。
+     * 表的最大长度与大小在创建 {@link StringCanonicalizer} 时指定，可通过 {@link StringCanonicalizer#stats()}
+     * 查看命中率判断是否值得开启。字段名已由 Jackson 规范化，不经过此表。
+     * </p>
+     *
+     * <pre>{@code
+     * ParserConfig.getGlobalInstance().setStringCanonicalizer(new StringCanonicalizer(16, 1024));
+     * }</pre>
+     *
+     * @param stringCanonicalizer 规范化表，可为 {@code null}
+     */
+    public void setStringCanonicalizer(StringCanonicalizer stringCanonicalizer) {
+        this.stringCanonicalizer = stringCanonicalizer;
+    }
+
+    /**
+     * 是否将已有的 Map/List 包装为视图而不复制。
+     *
+     * @return 启用返回 {@code true}
+     * @see #setWrapCollections(boolean)
+     */
+    public boolean isWrapCollections() {
+        return wrapCollections;
+    }
+
+    /**
+     * 设置是否将已有的 Map/List 包装为视图而不复制。
+     * <p>
+     * 启用后，{@code new JSONObject(Map)}、{@code new JSONArray(List)}、{@code JSON.toJSON} 等不再逐层转换源集合，
+     * 而是返回以源集合为存储的视图（同 {@code JSONObject.wrap}），嵌套集合在取出时才包装。
+     * 写入是否作用于源集合由 {@link #setWrapCopyOnWrite(boolean)} 决定。
+     * </p>
+     *
+     * @param wrapCollections 是否启用
+     */
+    public void setWrapCollections(boolean wrapCollections) {
+        this.wrapCollections = wrapCollections;
+    }
+
+    /**
+     * 包装得到的视图是否写时复制。
+     *
+     * @return 启用返回 {@code true}
+     * @see #setWrapCopyOnWrite(boolean)
+     */
+    public boolean isWrapCopyOnWrite() {
+        return wrapCopyOnWrite;
+    }
+
+    /**
+     * 设置 {@link #setWrapCollections(boolean)} 得到的视图是否写时复制。
+     * <p>
+     * 默认 {@code false}，写入直接作用于源集合；启用后首次写入前先复制被修改的那一层，源集合不被修改。
+     * </p>
+     *
+     * @param wrapCopyOnWrite 是否启用
+     */
+    public void setWrapCopyOnWrite(boolean wrapCopyOnWrite) {
+        this.wrapCopyOnWrite = wrapCopyOnWrite;
+    }
+}
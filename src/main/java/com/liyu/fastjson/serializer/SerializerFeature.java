@@ -140,6 +140,35 @@ public enum SerializerFeature {
      */
     MapSortField;
 
+    /**
+     * 特性对应的位掩码，等于 {@code 1 << ordinal()}
+     */
+    public final int mask;
+
+    SerializerFeature() {
+        mask = 1 << ordinal();
+    }
+
+    /**
+     * 返回特性对应的位掩码。
+     *
+     * @return 位掩码
+     */
+    public final int getMask() {
+        return mask;
+    }
+
+    /**
+     * 判断位掩码中是否包含指定特性。
+     *
+     * @param features 特性位掩码
+     * @param feature  待判断的特性
+     * @return 包含返回 {@code true}
+     */
+    public static boolean isEnabled(int features, SerializerFeature feature) {
+        return (features & feature.mask) != 0;
+    }
+
     /**
      * 将多个特性合并为位掩码整数，与 fastjson 行为保持一致。
      *
@@ -152,7 +181,7 @@ public enum SerializerFeature {
         }
         int value = 0;
         for (SerializerFeature feature : features) {
-            value |= 1 << feature.ordinal();
+            value |= feature.mask;
         }
         return value;
     }
@@ -0,0 +1,73 @@
+package com.liyu.fastjson.support;
+
+/**
+ * 缓存命中统计快照，用于观察内部缓存是否被有效利用。
+ * <p>
+ * 实例不可变，每次调用统计方法都会返回新的快照。
+ * </p>
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final int size;
+
+    /**
+     * 创建统计快照。
+     *
+     * @param hitCount  命中次数
+     * @param missCount 未命中次数
+     * @param size      当前缓存条目数
+     */
+    public CacheStats(long hitCount, long missCount, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.size = size;
+    }
+
+    /**
+     * 返回命中次数。
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 返回未命中次数。
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 返回当前缓存条目数。
+     *
+     * @return 条目数
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * 返回命中率，无请求时返回 {@code 1.0}。
+     *
+     * @return 命中率，取值范围 {@code [0, 1]}
+     */
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 1.0D : (double) hitCount / total;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "CacheStats{hitCount=" + hitCount + ", missCount=" + missCount + ", size=" + size
+                + ", hitRate=" + getHitRate() + '}';
+    }
+}
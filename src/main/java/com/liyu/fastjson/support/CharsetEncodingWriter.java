@@ -0,0 +1,139 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.util.BufferRecycler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * 将字符按指定字符集直接编码写入 {@link OutputStream} 的 {@link Writer}。
+ * <p>
+ * 与 {@link java.io.OutputStreamWriter} 相比，编码缓冲区取自 Jackson {@link BufferRecycler}，
+ * 关闭时归还，可在多次序列化之间复用。无法映射的字符按 {@link String#getBytes(Charset)} 的方式替换。
+ * </p>
+ * <p>实例非线程安全，关闭后不可再次使用；关闭时不会关闭目标输出流。</p>
+ */
+final class CharsetEncodingWriter extends Writer {
+
+    private final OutputStream out;
+    private final CharsetEncoder encoder;
+    private final BufferRecycler recycler;
+    private byte[] buffer;
+    private ByteBuffer bytes;
+
+    /**
+     * 上一次写入末尾未配对的高位代理字符，{@code 0} 表示没有
+     */
+    private char pendingHighSurrogate;
+
+    CharsetEncodingWriter(OutputStream out, Charset charset, BufferRecycler recycler) {
+        this.out = out;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.recycler = recycler;
+        this.buffer = recycler.allocByteBuffer(BufferRecycler.BYTE_WRITE_ENCODING_BUFFER);
+        this.bytes = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        write(CharBuffer.wrap(cbuf, off, len));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        write(CharBuffer.wrap(str, off, off + len));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(int c) throws IOException {
+        write(CharBuffer.wrap(new char[]{(char) c}));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * 结束编码并写出剩余字节，归还缓冲区；不会关闭目标输出流。
+     *
+     * @throws IOException 写出失败时抛出
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        CharBuffer rest = pendingHighSurrogate != 0
+                ? CharBuffer.wrap(new char[]{pendingHighSurrogate})
+                : CharBuffer.allocate(0);
+        pendingHighSurrogate = 0;
+        encode(rest, true);
+        while (encoder.flush(bytes).isOverflow()) {
+            drain();
+        }
+        drain();
+        recycler.releaseByteBuffer(BufferRecycler.BYTE_WRITE_ENCODING_BUFFER, buffer);
+        buffer = null;
+        bytes = null;
+    }
+
+    private void write(CharBuffer in) throws IOException {
+        if (!in.hasRemaining()) {
+            return;
+        }
+        if (pendingHighSurrogate != 0) {
+            char[] pair = {pendingHighSurrogate, in.get()};
+            pendingHighSurrogate = 0;
+            encode(CharBuffer.wrap(pair), false);
+        }
+        encode(in, false);
+    }
+
+    private void encode(CharBuffer in, boolean endOfInput) throws IOException {
+        for (;;) {
+            CoderResult result = encoder.encode(in, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drain();
+                continue;
+            }
+            if (result.isUnderflow()) {
+                // 未结束时编码器只会因代理对被截断而留下一个字符，留待下次写入拼接
+                if (in.hasRemaining()) {
+                    pendingHighSurrogate = in.get();
+                }
+                return;
+            }
+            result.throwException();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (bytes.position() > 0) {
+            out.write(buffer, 0, bytes.position());
+            bytes.clear();
+        }
+    }
+}
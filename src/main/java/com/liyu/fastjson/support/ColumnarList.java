@@ -0,0 +1,844 @@
+package com.liyu.fastjson.support;
+
+import com.liyu.fastjson.JSONObject;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * 按列存储同构对象数组的 {@link com.liyu.fastjson.JSONArray} 内部存储。
+ * <p>
+ * 所有行的键序列相同（共享同一 {@link KeyLayout}），每个字段保存为一列：{@link Integer}/{@link Long}/紧凑小数列
+ * 使用基本类型数组，重复度高的字符串列使用字典编码，其余使用 {@code Object[]}。
+ * {@link #get(int)} 返回的行对象是按需创建的轻量视图，修改已有字段直接写回列中（类型不匹配时该列转为 {@code Object[]}）。
+ * </p>
+ * <p>
+ * 增删行、行对象增删字段等结构修改会把整个数组一次性转为普通的逐行存储，之前取得的行视图随之指向转换后的行对象。
+ * {@link #getLongColumn(String)}、{@link #sum(String)} 等列访问方法直接扫描列数据，不创建行对象，
+ * 仅在列式存储时可用。实例非线程安全。
+ * </p>
+ */
+public final class ColumnarList extends AbstractList<Object> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 采用列式存储的最少行数
+     */
+    public static final int MIN_ROWS = 8;
+
+    private final String[] keys;
+    private final int size;
+    private final boolean ordered;
+
+    private transient KeyLayout layout;
+
+    private Column[] columns;
+
+    /**
+     * 转为逐行存储后的行对象，按原始行号排列；列式存储时为 {@code null}
+     */
+    private JSONObject[] rows;
+
+    /**
+     * 转为逐行存储后实际使用的列表
+     */
+    private List<Object> detached;
+
+    private ColumnarList(KeyLayout layout, Column[] columns, int size, boolean ordered) {
+        this.layout = layout;
+        this.keys = layout.keys;
+        this.columns = columns;
+        this.size = size;
+        this.ordered = ordered;
+    }
+
+    /**
+     * 尝试以列式存储 {@code values[from, to)} 中的对象。
+     * <p>要求至少 {@value #MIN_ROWS} 行，且全部是共享同一键布局的 {@link JSONObject}。</p>
+     *
+     * @param values  元素数组
+     * @param from    起始下标
+     * @param to      结束下标（不含）
+     * @param ordered 转为逐行存储时新建行对象是否有序
+     * @return 列式存储；不满足条件时返回 {@code null}
+     */
+    public static ColumnarList of(Object[] values, int from, int to, boolean ordered) {
+        int size = to - from;
+        if (size < MIN_ROWS) {
+            return null;
+        }
+        KeyLayout layout = null;
+        CompactMap[] maps = new CompactMap[size];
+        for (int r = 0; r < size; r++) {
+            Object value = values[from + r];
+            if (!(value instanceof JSONObject)) {
+                return null;
+            }
+            Map<String, Object> map = ((JSONObject) value).getInnerMap();
+            if (!(map instanceof CompactMap) || ((CompactMap) map).layout() == null
+                    || layout != null && ((CompactMap) map).layout() != layout) {
+                return null;
+            }
+            layout = ((CompactMap) map).layout();
+            maps[r] = (CompactMap) map;
+        }
+        Column[] columns = new Column[layout.size()];
+        Object[] cells = new Object[size];
+        for (int c = 0; c < columns.length; c++) {
+            for (int r = 0; r < size; r++) {
+                Object cell = maps[r].valueAt(c);
+                if (cell instanceof LazyValue) {
+                    return null;
+                }
+                cells[r] = cell;
+            }
+            columns[c] = Column.of(cells);
+        }
+        return new ColumnarList(layout, columns, size, ordered);
+    }
+
+    /**
+     * 是否仍为列式存储。
+     *
+     * @return 列式存储返回 {@code true}
+     */
+    public boolean isColumnar() {
+        return rows == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return rows == null ? size : detached.size();
+    }
+
+    /**
+     * 返回行对象。列式存储时为写回列数据的视图，每次调用新建。
+     */
+    @Override
+    public Object get(int index) {
+        if (rows != null) {
+            return detached.get(index);
+        }
+        checkIndex(index);
+        return JSONObject.wrapInnerMap(new RowMap(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object set(int index, Object element) {
+        detach();
+        return detached.set(index, element);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, Object element) {
+        detach();
+        detached.add(index, element);
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object remove(int index) {
+        detach();
+        modCount++;
+        return detached.remove(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        detach();
+        detached.clear();
+        modCount++;
+    }
+
+    /**
+     * 按 {@code getLongValue(key)} 的规则返回整列值，缺失或 {@code null} 为 {@code 0}。
+     *
+     * @param key 字段名
+     * @return 新数组
+     * @throws IllegalStateException 已转为逐行存储时抛出
+     */
+    public long[] getLongColumn(String key) {
+        Column column = column(key);
+        long[] result = new long[size];
+        for (int r = 0; r < size; r++) {
+            result[r] = column.longAt(r);
+        }
+        return result;
+    }
+
+    /**
+     * 按 {@code getDoubleValue(key)} 的规则返回整列值，缺失或 {@code null} 为 {@code 0.0}。
+     *
+     * @param key 字段名
+     * @return 新数组
+     * @throws IllegalStateException 已转为逐行存储时抛出
+     */
+    public double[] getDoubleColumn(String key) {
+        Column column = column(key);
+        double[] result = new double[size];
+        for (int r = 0; r < size; r++) {
+            result[r] = column.doubleAt(r);
+        }
+        return result;
+    }
+
+    /**
+     * 返回列中非 {@code null} 值按 double 计算的和。
+     *
+     * @param key 字段名
+     * @return 和；没有值时为 {@code 0.0}
+     * @throws IllegalStateException 已转为逐行存储时抛出
+     */
+    public double sum(String key) {
+        Column column = column(key);
+        double sum = 0;
+        for (int r = 0; r < size; r++) {
+            sum += column.doubleAt(r);
+        }
+        return sum;
+    }
+
+    /**
+     * 返回列中非 {@code null} 值的最小值。
+     *
+     * @param key 字段名
+     * @return 最小值；没有值时为 {@link Double#NaN}
+     * @throws IllegalStateException 已转为逐行存储时抛出
+     */
+    public double min(String key) {
+        return extreme(key, true);
+    }
+
+    /**
+     * 返回列中非 {@code null} 值的最大值。
+     *
+     * @param key 字段名
+     * @return 最大值；没有值时为 {@link Double#NaN}
+     * @throws IllegalStateException 已转为逐行存储时抛出
+     */
+    public double max(String key) {
+        return extreme(key, false);
+    }
+
+    private double extreme(String key, boolean min) {
+        Column column = column(key);
+        double result = Double.NaN;
+        for (int r = 0; r < size; r++) {
+            if (column.isNull(r)) {
+                continue;
+            }
+            double value = column.doubleAt(r);
+            if (Double.isNaN(result) || (min ? value < result : value > result)) {
+                result = value;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 返回字段对应的列，字段不存在时返回始终为 {@code null} 的列
+     */
+    private Column column(String key) {
+        if (rows != null) {
+            throw new IllegalStateException("not columnar");
+        }
+        int c = layout.indexOf(key);
+        return c >= 0 ? columns[c] : NullColumn.INSTANCE;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * 转为逐行存储
+     */
+    private void detach() {
+        if (rows != null) {
+            return;
+        }
+        JSONObject[] materialized = new JSONObject[size];
+        CompactList list = new CompactList(size);
+        Object[] values = new Object[keys.length];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < keys.length; c++) {
+                values[c] = columns[c].get(r);
+            }
+            JSONObject row = new JSONObject(0, ordered);
+            Map<String, Object> map = row.getInnerMap();
+            if (map instanceof CompactMap) {
+                ((CompactMap) map).assign(layout, values, 0);
+            } else {
+                for (int c = 0; c < keys.length; c++) {
+                    map.put(keys[c], values[c]);
+                }
+            }
+            materialized[r] = row;
+            list.add(row);
+        }
+        rows = materialized;
+        detached = list;
+        columns = null;
+    }
+
+    private Object setCell(int c, int row, Object value) {
+        Object old = columns[c].get(row);
+        if (!columns[c].set(row, value)) {
+            columns[c] = ObjectColumn.copyOf(columns[c], size);
+            columns[c].set(row, value);
+        }
+        return old;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        layout = KeyLayout.of(keys, 0, keys.length);
+    }
+
+    /**
+     * 行视图。转为逐行存储后委托给对应的行对象
+     */
+    private final class RowMap extends AbstractMap<String, Object> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int row;
+
+        private transient Set<Entry<String, Object>> entrySet;
+
+        RowMap(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public int size() {
+            return rows == null ? keys.length : rows[row].size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return rows == null ? layout.indexOf(key) >= 0 : rows[row].containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (rows != null) {
+                return rows[row].get(key);
+            }
+            int c = layout.indexOf(key);
+            return c >= 0 ? columns[c].get(row) : null;
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            if (rows == null) {
+                int c = layout.indexOf(key);
+                if (c >= 0) {
+                    return setCell(c, row, value);
+                }
+                detach();
+            }
+            return rows[row].put(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            if (rows == null) {
+                if (layout.indexOf(key) < 0) {
+                    return null;
+                }
+                detach();
+            }
+            return rows[row].remove(key);
+        }
+
+        @Override
+        public void clear() {
+            detach();
+            rows[row].clear();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            if (rows != null) {
+                return rows[row].entrySet();
+            }
+            Set<Entry<String, Object>> set = entrySet;
+            if (set == null) {
+                set = new AbstractSet<Entry<String, Object>>() {
+                    @Override
+                    public Iterator<Entry<String, Object>> iterator() {
+                        return new RowIterator(RowMap.this);
+                    }
+
+                    @Override
+                    public int size() {
+                        return RowMap.this.size();
+                    }
+                };
+                entrySet = set;
+            }
+            return set;
+        }
+    }
+
+    /**
+     * 按布局顺序遍历行视图的字段；遍历中转为逐行存储后跳过已删除的字段
+     */
+    private final class RowIterator implements Iterator<Map.Entry<String, Object>> {
+
+        private final RowMap map;
+        private int next;
+        private String last;
+
+        RowIterator(RowMap map) {
+            this.map = map;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next < keys.length && rows != null && !map.containsKey(keys[next])) {
+                next++;
+            }
+            return next < keys.length;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String key = keys[next++];
+            last = key;
+            return new AbstractMap.SimpleEntry<String, Object>(key, map.get(key)) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public Object getValue() {
+                    return map.get(key);
+                }
+
+                @Override
+                public Object setValue(Object value) {
+                    return map.put(key, value);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            map.remove(last);
+            last = null;
+        }
+    }
+
+    private abstract static class Column implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 按值的类型选择列实现
+         */
+        static Column of(Object[] cells) {
+            Object first = cells[0];
+            if (first instanceof Integer) {
+                return IntColumn.of(cells);
+            }
+            if (first instanceof Long) {
+                return LongColumn.of(cells);
+            }
+            if (first instanceof BigDecimal || first instanceof LazyNumber) {
+                return DecimalColumn.of(cells);
+            }
+            if (first == null || first instanceof String) {
+                return StringColumn.of(cells);
+            }
+            return ObjectColumn.of(cells);
+        }
+
+        abstract Object get(int row);
+
+        /**
+         * 写入值，类型不匹配时返回 {@code false} 且不修改
+         */
+        abstract boolean set(int row, Object value);
+
+        boolean isNull(int row) {
+            return get(row) == null;
+        }
+
+        long longAt(int row) {
+            return TypeUtils.castToLongValue(get(row));
+        }
+
+        double doubleAt(int row) {
+            return TypeUtils.castToDoubleValue(get(row));
+        }
+    }
+
+    private static final class NullColumn extends Column {
+
+        private static final long serialVersionUID = 1L;
+
+        static final NullColumn INSTANCE = new NullColumn();
+
+        @Override
+        Object get(int row) {
+            return null;
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            return false;
+        }
+    }
+
+    private static final class IntColumn extends Column {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] values;
+
+        private IntColumn(int[] values) {
+            this.values = values;
+        }
+
+        static Column of(Object[] cells) {
+            int[] values = new int[cells.length];
+            for (int r = 0; r < cells.length; r++) {
+                if (!(cells[r] instanceof Integer)) {
+                    return ObjectColumn.of(cells);
+                }
+                values[r] = (Integer) cells[r];
+            }
+            return new IntColumn(values);
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (!(value instanceof Integer)) {
+                return false;
+            }
+            values[row] = (Integer) value;
+            return true;
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return false;
+        }
+
+        @Override
+        long longAt(int row) {
+            return values[row];
+        }
+
+        @Override
+        double doubleAt(int row) {
+            return values[row];
+        }
+    }
+
+    private static final class LongColumn extends Column {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] values;
+
+        private LongColumn(long[] values) {
+            this.values = values;
+        }
+
+        static Column of(Object[] cells) {
+            long[] values = new long[cells.length];
+            for (int r = 0; r < cells.length; r++) {
+                if (!(cells[r] instanceof Long)) {
+                    return ObjectColumn.of(cells);
+                }
+                values[r] = (Long) cells[r];
+            }
+            return new LongColumn(values);
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (!(value instanceof Long)) {
+                return false;
+            }
+            values[row] = (Long) value;
+            return true;
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return false;
+        }
+
+        @Override
+        long longAt(int row) {
+            return values[row];
+        }
+
+        @Override
+        double doubleAt(int row) {
+            return values[row];
+        }
+    }
+
+    /**
+     * 与 {@link CompactList#DECIMAL} 相同的 double 加标度存储
+     */
+    private static final class DecimalColumn extends Column {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] values;
+        private final byte[] scales;
+
+        private DecimalColumn(double[] values, byte[] scales) {
+            this.values = values;
+            this.scales = scales;
+        }
+
+        static Column of(Object[] cells) {
+            DecimalColumn column = new DecimalColumn(new double[cells.length], new byte[cells.length]);
+            for (int r = 0; r < cells.length; r++) {
+                if (!column.set(r, cells[r])) {
+                    return ObjectColumn.of(cells);
+                }
+            }
+            return column;
+        }
+
+        @Override
+        Object get(int row) {
+            return BigDecimal.valueOf(values[row]).setScale(scales[row], RoundingMode.HALF_EVEN);
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value instanceof LazyNumber && ((LazyNumber) value).isCompact()) {
+                values[row] = ((LazyNumber) value).doubleValue();
+                scales[row] = (byte) ((LazyNumber) value).scale();
+                return true;
+            }
+            if (value instanceof BigDecimal && CompactList.isCompactDecimal((BigDecimal) value)) {
+                values[row] = ((BigDecimal) value).doubleValue();
+                scales[row] = (byte) ((BigDecimal) value).scale();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        boolean isNull(int row) {
+            return false;
+        }
+
+        @Override
+        long longAt(int row) {
+            return (long) values[row];
+        }
+
+        @Override
+        double doubleAt(int row) {
+            return values[row];
+        }
+    }
+
+    /**
+     * 字典编码的字符串列，编码 {@code -1} 表示 {@code null}
+     */
+    private static final class StringColumn extends Column {
+
+        private static final long serialVersionUID = 1L;
+
+        private String[] dictionary;
+        private int dictionarySize;
+        private final int[] codes;
+
+        private transient Map<String, Integer> lookup;
+
+        private StringColumn(int rows) {
+            this.dictionary = new String[8];
+            this.codes = new int[rows];
+        }
+
+        static Column of(Object[] cells) {
+            StringColumn column = new StringColumn(cells.length);
+            for (int r = 0; r < cells.length; r++) {
+                if (!column.set(r, cells[r])) {
+                    return ObjectColumn.of(cells);
+                }
+            }
+            column.lookup = null;
+            return column;
+        }
+
+        @Override
+        Object get(int row) {
+            int code = codes[row];
+            return code < 0 ? null : dictionary[code];
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            if (value == null) {
+                codes[row] = -1;
+                return true;
+            }
+            if (!(value instanceof String)) {
+                return false;
+            }
+            if (lookup == null) {
+                lookup = buildLookup();
+            }
+            Integer code = lookup.get(value);
+            if (code == null) {
+                // 不同值超过行数一半时字典编码不再节省内存；覆盖写入留下的无用条目先清理，仍超出则改用普通列
+                if (dictionarySize >= maxDictionarySize() && (compact() || dictionarySize >= maxDictionarySize())) {
+                    return false;
+                }
+                if (lookup == null) {
+                    lookup = buildLookup();
+                }
+                if (dictionarySize == dictionary.length) {
+                    dictionary = Arrays.copyOf(dictionary, dictionarySize << 1);
+                }
+                code = dictionarySize;
+                dictionary[dictionarySize++] = (String) value;
+                lookup.put((String) value, code);
+            }
+            codes[row] = code;
+            return true;
+        }
+
+        private Map<String, Integer> buildLookup() {
+            Map<String, Integer> map = new HashMap<>();
+            for (int i = 0; i < dictionarySize; i++) {
+                map.put(dictionary[i], i);
+            }
+            return map;
+        }
+
+        private int maxDictionarySize() {
+            return Math.max(1, codes.length / 2);
+        }
+
+        /**
+         * 去掉已没有行引用的字典条目；字典仍已满时返回 {@code true}
+         */
+        private boolean compact() {
+            int[] remap = new int[dictionarySize];
+            Arrays.fill(remap, -1);
+            int live = 0;
+            for (int code : codes) {
+                if (code >= 0 && remap[code] < 0) {
+                    remap[code] = live++;
+                }
+            }
+            if (live == dictionarySize) {
+                return true;
+            }
+            String[] compacted = new String[Math.max(8, live)];
+            for (int i = 0; i < dictionarySize; i++) {
+                if (remap[i] >= 0) {
+                    compacted[remap[i]] = dictionary[i];
+                }
+            }
+            for (int r = 0; r < codes.length; r++) {
+                if (codes[r] >= 0) {
+                    codes[r] = remap[codes[r]];
+                }
+            }
+            dictionary = compacted;
+            dictionarySize = live;
+            lookup = null;
+            return false;
+        }
+    }
+
+    private static final class ObjectColumn extends Column {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] values;
+
+        private ObjectColumn(Object[] values) {
+            this.values = values;
+        }
+
+        static Column of(Object[] cells) {
+            Object[] values = new Object[cells.length];
+            for (int r = 0; r < cells.length; r++) {
+                Object cell = cells[r];
+                values[r] = cell instanceof LazyNumber ? ((LazyNumber) cell).decimalValue() : cell;
+            }
+            return new ObjectColumn(values);
+        }
+
+        static Column copyOf(Column column, int rows) {
+            Object[] values = new Object[rows];
+            for (int r = 0; r < rows; r++) {
+                values[r] = column.get(r);
+            }
+            return new ObjectColumn(values);
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        boolean set(int row, Object value) {
+            values[row] = value;
+            return true;
+        }
+    }
+}
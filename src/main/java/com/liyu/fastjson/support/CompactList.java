@@ -0,0 +1,490 @@
+package com.liyu.fastjson.support;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * {@link com.liyu.fastjson.JSONArray} 的默认内部存储，同类数值元素使用基本类型数组保存。
+ * <p>
+ * 第一个元素决定存储方式：{@link Integer} 使用 {@code int[]}，{@link Long} 使用 {@code long[]}，
+ * 有效数字不超过 {@value #MAX_DECIMAL_PRECISION} 位的非负标度 {@link BigDecimal}（解析器产生的小数）
+ * 使用 {@code double[]} 加逐元素标度（紧凑形式的 {@link LazyNumber} 直接写入，不创建 {@code BigDecimal}），
+ * 其余使用 {@code Object[]}。之后加入不匹配的元素时，整个列表一次性转为 {@code Object[]} 存储，不再回退。
+ * </p>
+ * <p>
+ * {@link #get(int)} 返回的对象与加入时相等（类型相同、{@code equals} 为真），
+ * 数值存储下的 {@link #getInt(int)}/{@link #getLong(int)}/{@link #getDouble(int)} 与对应包装类型的
+ * {@code intValue()}/{@code longValue()}/{@code doubleValue()} 结果一致且不装箱。实例非线程安全。
+ * </p>
+ */
+public final class CompactList extends AbstractList<Object> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 尚无元素、存储方式未确定
+     */
+    public static final int UNDECIDED = -1;
+
+    /**
+     * {@code Object[]} 存储
+     */
+    public static final int BOXED = 0;
+
+    /**
+     * {@code int[]} 存储，元素为 {@link Integer}
+     */
+    public static final int INT = 1;
+
+    /**
+     * {@code long[]} 存储，元素为 {@link Long}
+     */
+    public static final int LONG = 2;
+
+    /**
+     * {@code double[]} 加标度存储，元素为 {@link BigDecimal}
+     */
+    public static final int DECIMAL = 3;
+
+    /**
+     * 可以按 double 精确还原的最大有效数字位数
+     */
+    static final int MAX_DECIMAL_PRECISION = 15;
+
+    private static final int MAX_DECIMAL_SCALE = Byte.MAX_VALUE;
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int storage = UNDECIDED;
+
+    /**
+     * 与 {@link #storage} 对应的 {@code Object[]}/{@code int[]}/{@code long[]}/{@code double[]}，未确定时为 {@code null}
+     */
+    private Object elements;
+
+    /**
+     * {@link #DECIMAL} 存储下各元素的标度
+     */
+    private byte[] scales;
+
+    private int size;
+
+    private int initialCapacity;
+
+    /**
+     * 创建空列表。
+     *
+     * @param initialCapacity 预期元素数
+     */
+    public CompactList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        this.initialCapacity = initialCapacity;
+    }
+
+    /**
+     * 返回浅拷贝，保持当前存储方式，元素不复制。
+     *
+     * @return 新实例
+     */
+    public CompactList copy() {
+        CompactList copy = new CompactList(initialCapacity);
+        if (storage != UNDECIDED) {
+            copy.storage = storage;
+            copy.elements = elements;
+            copy.scales = scales;
+            copy.size = size;
+            copy.resize(capacity());
+        }
+        return copy;
+    }
+
+    /**
+     * 返回当前存储方式。
+     *
+     * @return {@link #UNDECIDED}、{@link #BOXED}、{@link #INT}、{@link #LONG} 或 {@link #DECIMAL}
+     */
+    public int getStorage() {
+        return storage;
+    }
+
+    /**
+     * 是否为基本类型数值存储。
+     *
+     * @return {@link #INT}、{@link #LONG} 或 {@link #DECIMAL} 存储时返回 {@code true}
+     */
+    public boolean isNumeric() {
+        return storage > BOXED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object get(int index) {
+        checkIndex(index);
+        switch (storage) {
+            case INT:
+                return ((int[]) elements)[index];
+            case LONG:
+                return ((long[]) elements)[index];
+            case DECIMAL:
+                return decimal(index);
+            default:
+                return ((Object[]) elements)[index];
+        }
+    }
+
+    /**
+     * 以 int 读取数值元素，结果同 {@link Number#intValue()}。
+     *
+     * @param index 下标
+     * @return int 值
+     * @throws IllegalStateException 非数值存储时抛出
+     */
+    public int getInt(int index) {
+        checkIndex(index);
+        switch (storage) {
+            case INT:
+                return ((int[]) elements)[index];
+            case LONG:
+                return (int) ((long[]) elements)[index];
+            case DECIMAL:
+                // 有效数字不超过 15 位时截断结果与 BigDecimal.intValue() 相同
+                return (int) (long) ((double[]) elements)[index];
+            default:
+                throw new IllegalStateException("not a numeric storage");
+        }
+    }
+
+    /**
+     * 以 long 读取数值元素，结果同 {@link Number#longValue()}。
+     *
+     * @param index 下标
+     * @return long 值
+     * @throws IllegalStateException 非数值存储时抛出
+     */
+    public long getLong(int index) {
+        checkIndex(index);
+        switch (storage) {
+            case INT:
+                return ((int[]) elements)[index];
+            case LONG:
+                return ((long[]) elements)[index];
+            case DECIMAL:
+                return (long) ((double[]) elements)[index];
+            default:
+                throw new IllegalStateException("not a numeric storage");
+        }
+    }
+
+    /**
+     * 以 double 读取数值元素，结果同 {@link Number#doubleValue()}。
+     *
+     * @param index 下标
+     * @return double 值
+     * @throws IllegalStateException 非数值存储时抛出
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        switch (storage) {
+            case INT:
+                return ((int[]) elements)[index];
+            case LONG:
+                return ((long[]) elements)[index];
+            case DECIMAL:
+                return ((double[]) elements)[index];
+            default:
+                throw new IllegalStateException("not a numeric storage");
+        }
+    }
+
+    /**
+     * 将全部数值元素复制为 int 数组。
+     *
+     * @return 新数组
+     * @throws IllegalStateException 非数值存储时抛出
+     */
+    public int[] toIntArray() {
+        if (storage == INT) {
+            return Arrays.copyOf((int[]) elements, size);
+        }
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = getInt(i);
+        }
+        return result;
+    }
+
+    /**
+     * 将全部数值元素复制为 long 数组。
+     *
+     * @return 新数组
+     * @throws IllegalStateException 非数值存储时抛出
+     */
+    public long[] toLongArray() {
+        if (storage == LONG) {
+            return Arrays.copyOf((long[]) elements, size);
+        }
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = getLong(i);
+        }
+        return result;
+    }
+
+    /**
+     * 将全部数值元素复制为 double 数组。
+     *
+     * @return 新数组
+     * @throws IllegalStateException 非数值存储时抛出
+     */
+    public double[] toDoubleArray() {
+        if (storage == DECIMAL) {
+            return Arrays.copyOf((double[]) elements, size);
+        }
+        double[] result = new double[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = getDouble(i);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object set(int index, Object element) {
+        checkIndex(index);
+        element = normalize(element);
+        Object old = get(index);
+        if (!accepts(element)) {
+            box(size);
+        }
+        store(index, element);
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(Object element) {
+        add(size, element);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, Object element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        element = normalize(element);
+        if (storage == UNDECIDED) {
+            allocate(storageOf(element), Math.max(initialCapacity, 1));
+        } else if (!accepts(element)) {
+            box(size + 1);
+        }
+        if (size == capacity()) {
+            resize(Math.max(size + 1, size + (size >> 1)));
+        }
+        if (index < size) {
+            System.arraycopy(elements, index, elements, index + 1, size - index);
+            if (scales != null) {
+                System.arraycopy(scales, index, scales, index + 1, size - index);
+            }
+        }
+        store(index, element);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object remove(int index) {
+        checkIndex(index);
+        Object old = get(index);
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(elements, index + 1, elements, index, moved);
+            if (scales != null) {
+                System.arraycopy(scales, index + 1, scales, index, moved);
+            }
+        }
+        size--;
+        if (storage == BOXED) {
+            ((Object[]) elements)[size] = null;
+        }
+        modCount++;
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        storage = UNDECIDED;
+        elements = null;
+        scales = null;
+        size = 0;
+        modCount++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * 非紧凑形式的 {@link LazyNumber} 在写入前解码，紧凑形式留给 {@link #DECIMAL} 存储直接使用
+     */
+    private static Object normalize(Object element) {
+        if (element instanceof LazyNumber && !((LazyNumber) element).isCompact()) {
+            return ((LazyNumber) element).decimalValue();
+        }
+        return element;
+    }
+
+    private static int storageOf(Object element) {
+        if (element instanceof Integer) {
+            return INT;
+        }
+        if (element instanceof Long) {
+            return LONG;
+        }
+        if (element instanceof LazyNumber || element instanceof BigDecimal && isCompactDecimal((BigDecimal) element)) {
+            return DECIMAL;
+        }
+        return BOXED;
+    }
+
+    static boolean isCompactDecimal(BigDecimal value) {
+        int scale = value.scale();
+        return scale >= 0 && scale <= MAX_DECIMAL_SCALE && value.precision() <= MAX_DECIMAL_PRECISION;
+    }
+
+    private boolean accepts(Object element) {
+        switch (storage) {
+            case INT:
+                return element instanceof Integer;
+            case LONG:
+                return element instanceof Long;
+            case DECIMAL:
+                return element instanceof LazyNumber
+                        || element instanceof BigDecimal && isCompactDecimal((BigDecimal) element);
+            default:
+                return true;
+        }
+    }
+
+    private BigDecimal decimal(int index) {
+        // 不超过 15 位有效数字的小数与 double 一一对应，按原标度舍入即可精确还原
+        return BigDecimal.valueOf(((double[]) elements)[index]).setScale(scales[index], RoundingMode.HALF_EVEN);
+    }
+
+    private void store(int index, Object element) {
+        switch (storage) {
+            case INT:
+                ((int[]) elements)[index] = (Integer) element;
+                break;
+            case LONG:
+                ((long[]) elements)[index] = (Long) element;
+                break;
+            case DECIMAL:
+                if (element instanceof LazyNumber) {
+                    LazyNumber number = (LazyNumber) element;
+                    ((double[]) elements)[index] = number.doubleValue();
+                    scales[index] = (byte) number.scale();
+                } else {
+                    BigDecimal decimal = (BigDecimal) element;
+                    ((double[]) elements)[index] = decimal.doubleValue();
+                    scales[index] = (byte) decimal.scale();
+                }
+                break;
+            default:
+                ((Object[]) elements)[index] = element instanceof LazyNumber
+                        ? ((LazyNumber) element).decimalValue() : element;
+        }
+    }
+
+    private int capacity() {
+        switch (storage) {
+            case INT:
+                return ((int[]) elements).length;
+            case LONG:
+                return ((long[]) elements).length;
+            case DECIMAL:
+                return ((double[]) elements).length;
+            default:
+                return ((Object[]) elements).length;
+        }
+    }
+
+    private void allocate(int storage, int capacity) {
+        this.storage = storage;
+        switch (storage) {
+            case INT:
+                elements = new int[capacity];
+                break;
+            case LONG:
+                elements = new long[capacity];
+                break;
+            case DECIMAL:
+                elements = new double[capacity];
+                scales = new byte[capacity];
+                break;
+            default:
+                elements = new Object[capacity];
+        }
+    }
+
+    private void resize(int capacity) {
+        switch (storage) {
+            case INT:
+                elements = Arrays.copyOf((int[]) elements, capacity);
+                break;
+            case LONG:
+                elements = Arrays.copyOf((long[]) elements, capacity);
+                break;
+            case DECIMAL:
+                elements = Arrays.copyOf((double[]) elements, capacity);
+                scales = Arrays.copyOf(scales, capacity);
+                break;
+            default:
+                elements = Arrays.copyOf((Object[]) elements, capacity);
+        }
+    }
+
+    /**
+     * 转为 {@code Object[]} 存储
+     */
+    private void box(int minCapacity) {
+        Object[] boxed = new Object[Math.max(minCapacity, Math.max(capacity(), DEFAULT_CAPACITY))];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = get(i);
+        }
+        storage = BOXED;
+        elements = boxed;
+        scales = null;
+    }
+}
@@ -0,0 +1,608 @@
+package com.liyu.fastjson.support;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * 以并行键/值数组存储的紧凑 Map，作为 {@link com.liyu.fastjson.JSONObject} 的默认内部存储。
+ * <p>
+ * 与 {@link java.util.LinkedHashMap} 相比没有逐条目的 Entry 对象和链表指针：
+ * 条目数不超过 {@value #LINEAR_SCAN_LIMIT} 时按顺序比较查找，超过后额外建立开放寻址（线性探测）的下标表。
+ * </p>
+ * <p>
+ * 有序模式下删除会前移后续条目，遍历顺序始终等于插入顺序；无序模式下删除用最后一个条目填补空位，
+ * 删除为 O(1)，但删除之后的遍历顺序不再保证。实例非线程安全。
+ * </p>
+ * <p>
+ * 通过 {@link #assign(KeyLayout, Object[], int)} 填充的实例与其他同构对象共享键数组和下标表（{@link KeyLayout}），
+ * 只保存自己的值数组；追加新键时迁移到子布局，删除等其他结构修改时复制出私有键数组。
+ * </p>
+ */
+public final class CompactMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 不建立下标表、直接顺序查找的最大条目数
+     */
+    static final int LINEAR_SCAN_LIMIT = 8;
+
+    /**
+     * 未指定容量时使用的默认条目数
+     */
+    public static final int DEFAULT_CAPACITY = 4;
+
+    private static final String[] EMPTY_KEYS = {};
+
+    private static final Object[] EMPTY_VALUES = {};
+
+    private final boolean ordered;
+
+    private String[] keys;
+    private Object[] values;
+    private int size;
+
+    /**
+     * 开放寻址下标表，元素为条目下标 + 1，0 表示空槽；条目数较少时为 {@code null}
+     */
+    private transient int[] index;
+
+    /**
+     * 共享的键布局；不为 {@code null} 时 {@link #keys}/{@link #index} 即布局中的数组，不得原地修改
+     */
+    private transient KeyLayout layout;
+
+    private transient int modCount;
+
+    private transient Set<Entry<String, Object>> entrySet;
+
+    /**
+     * 创建 Map。
+     *
+     * @param initialCapacity 预期条目数
+     * @param ordered         删除后是否仍保持插入顺序
+     */
+    public CompactMap(int initialCapacity, boolean ordered) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        this.ordered = ordered;
+        this.keys = initialCapacity == 0 ? EMPTY_KEYS : new String[initialCapacity];
+        this.values = initialCapacity == 0 ? EMPTY_VALUES : new Object[initialCapacity];
+    }
+
+    /**
+     * 以共享布局填充空 Map，值取自 {@code values[offset, offset + layout.size())}。
+     *
+     * @param layout 键布局
+     * @param values 值数组
+     * @param offset 起始下标
+     * @throws IllegalStateException Map 非空时抛出
+     */
+    public void assign(KeyLayout layout, Object[] values, int offset) {
+        if (size != 0) {
+            throw new IllegalStateException("map is not empty");
+        }
+        int n = layout.size();
+        this.layout = layout;
+        this.keys = layout.keys;
+        this.index = layout.index;
+        this.values = Arrays.copyOfRange(values, offset, offset + n);
+        this.size = n;
+        modCount++;
+    }
+
+    /**
+     * 返回浅拷贝，值不复制。共享布局的实例继续共享同一布局，只复制值数组。
+     *
+     * @return 新实例
+     */
+    public CompactMap copy() {
+        CompactMap copy = new CompactMap(0, ordered);
+        copy.layout = layout;
+        copy.keys = layout != null ? keys : Arrays.copyOf(keys, keys.length);
+        copy.index = layout != null || index == null ? index : index.clone();
+        copy.values = Arrays.copyOf(values, values.length);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * 返回是否与其他实例共享键布局。
+     *
+     * @return 共享返回 {@code true}
+     */
+    public boolean isSharedLayout() {
+        return layout != null;
+    }
+
+    /**
+     * 返回共享的键布局。
+     *
+     * @return 键布局；未共享时返回 {@code null}
+     */
+    KeyLayout layout() {
+        return layout;
+    }
+
+    /**
+     * 返回第 {@code i} 个条目的值，不做下标检查。
+     *
+     * @param i 条目下标
+     * @return 值
+     */
+    Object valueAt(int i) {
+        return values[i];
+    }
+
+    /**
+     * 返回是否为有序模式。
+     *
+     * @return 有序返回 {@code true}
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(values[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object get(Object key) {
+        int i = indexOf(key);
+        return i >= 0 ? values[i] : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object put(String key, Object value) {
+        int i = indexOf(key);
+        if (i >= 0) {
+            Object old = values[i];
+            values[i] = value;
+            return old;
+        }
+        if (layout != null) {
+            KeyLayout next = layout.transition(key);
+            if (next != null) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, Math.max(4, size + (size >> 1)));
+                }
+                layout = next;
+                keys = next.keys;
+                index = next.index;
+                values[size++] = value;
+                modCount++;
+                return null;
+            }
+            detach();
+        }
+        if (size == keys.length) {
+            grow();
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        modCount++;
+        if (index != null) {
+            insertIndex(size - 1);
+        } else if (size > LINEAR_SCAN_LIMIT) {
+            rebuildIndex();
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object remove(Object key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        Object old = values[i];
+        removeAt(i);
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        if (layout != null) {
+            layout = null;
+            keys = EMPTY_KEYS;
+            values = EMPTY_VALUES;
+            size = 0;
+            index = null;
+            modCount++;
+            return;
+        }
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        index = null;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        int expected = modCount;
+        for (int i = 0; i < size; i++) {
+            action.accept(keys[i], values[i]);
+            if (modCount != expected) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Set<Entry<String, Object>> set = entrySet;
+        if (set == null) {
+            set = new EntrySet();
+            entrySet = set;
+        }
+        return set;
+    }
+
+    private int indexOf(Object key) {
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(keys[i], key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        return indexOf(keys, index, key);
+    }
+
+    /**
+     * 在下标表中查找键，返回条目下标，不存在时返回 {@code -1}。
+     *
+     * @param keys  键数组
+     * @param index 下标表
+     * @param key   键
+     * @return 条目下标
+     */
+    static int indexOf(String[] keys, int[] index, Object key) {
+        int mask = index.length - 1;
+        for (int p = hash(key) & mask; ; p = (p + 1) & mask) {
+            int slot = index[p];
+            if (slot == 0) {
+                return -1;
+            }
+            if (Objects.equals(keys[slot - 1], key)) {
+                return slot - 1;
+            }
+        }
+    }
+
+    private void removeAt(int i) {
+        if (layout != null) {
+            detach();
+        }
+        if (index != null) {
+            removeIndex(i);
+        }
+        int last = size - 1;
+        if (i != last) {
+            if (ordered) {
+                System.arraycopy(keys, i + 1, keys, i, last - i);
+                System.arraycopy(values, i + 1, values, i, last - i);
+                if (index != null) {
+                    for (int p = 0; p < index.length; p++) {
+                        if (index[p] > i + 1) {
+                            index[p]--;
+                        }
+                    }
+                }
+            } else {
+                keys[i] = keys[last];
+                values[i] = values[last];
+                if (index != null) {
+                    index[findIndexSlot(last)] = i + 1;
+                }
+            }
+        }
+        keys[last] = null;
+        values[last] = null;
+        size = last;
+        modCount++;
+    }
+
+    /**
+     * 复制出私有的键数组和下标表，之后的结构修改不再影响共享布局
+     */
+    private void detach() {
+        layout = null;
+        keys = Arrays.copyOf(keys, values.length);
+        if (index != null) {
+            rebuildIndex();
+        }
+    }
+
+    private void grow() {
+        int capacity = keys.length;
+        int newCapacity = Math.max(4, capacity + (capacity >> 1));
+        keys = Arrays.copyOf(keys, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+        if (index != null) {
+            rebuildIndex();
+        }
+    }
+
+    private void rebuildIndex() {
+        index = buildIndex(keys, size);
+    }
+
+    /**
+     * 为 {@code keys[0, size)} 建立下标表，表长至少为 {@code keys.length} 的两倍，保证追加到数组容量前无需重建。
+     *
+     * @param keys 键数组
+     * @param size 键数
+     * @return 下标表
+     */
+    static int[] buildIndex(String[] keys, int size) {
+        int[] table = new int[Integer.highestOneBit(Math.max(keys.length, LINEAR_SCAN_LIMIT) * 2 - 1) << 1];
+        for (int i = 0; i < size; i++) {
+            insertIndex(table, keys[i], i);
+        }
+        return table;
+    }
+
+    private void insertIndex(int i) {
+        insertIndex(index, keys[i], i);
+    }
+
+    private static void insertIndex(int[] table, String key, int i) {
+        int mask = table.length - 1;
+        int p = hash(key) & mask;
+        while (table[p] != 0) {
+            p = (p + 1) & mask;
+        }
+        table[p] = i + 1;
+    }
+
+    private int findIndexSlot(int i) {
+        int mask = index.length - 1;
+        int p = hash(keys[i]) & mask;
+        while (index[p] != i + 1) {
+            p = (p + 1) & mask;
+        }
+        return p;
+    }
+
+    private void removeIndex(int i) {
+        // 线性探测的后移删除：把后续探测链上的条目前移填补空槽，保证查找不会提前遇到空槽
+        int mask = index.length - 1;
+        int hole = findIndexSlot(i);
+        index[hole] = 0;
+        for (int p = (hole + 1) & mask; index[p] != 0; p = (p + 1) & mask) {
+            int home = hash(keys[index[p] - 1]) & mask;
+            if (((p - home) & mask) >= ((p - hole) & mask)) {
+                index[hole] = index[p];
+                index[p] = 0;
+                hole = p;
+            }
+        }
+    }
+
+    private static int hash(Object key) {
+        if (key == null) {
+            return 0;
+        }
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // 同一流中共享布局的实例会反序列化出同一个键数组，这里复制为私有数组
+        keys = Arrays.copyOf(keys, Math.max(size, values.length));
+        if (size > LINEAR_SCAN_LIMIT) {
+            rebuildIndex();
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            int i = indexOf(e.getKey());
+            return i >= 0 && Objects.equals(values[i], e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            removeAt(indexOf(((Map.Entry<?, ?>) o).getKey()));
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new Node(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            // 两种模式下被删位置都由尚未访问的条目填补
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * 条目视图。条目删除或移动后仍保留原键，并按键重新定位，行为与 {@link java.util.LinkedHashMap} 的条目一致
+     */
+    private final class Node implements Entry<String, Object> {
+
+        private final String key;
+        private Object value;
+        private int i;
+
+        Node(int i) {
+            this.key = keys[i];
+            this.value = values[i];
+            this.i = i;
+        }
+
+        private boolean locate() {
+            if (i >= 0 && i < size && keys[i] == key) {
+                return true;
+            }
+            i = indexOf(key);
+            return i >= 0;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            if (locate()) {
+                value = values[i];
+            }
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = getValue();
+            if (locate()) {
+                values[i] = value;
+            }
+            this.value = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.liyu.fastjson.support;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * {@link GenericArrayType} 的简单实现，用于在运行时拼装泛型数组类型。
+ * <p>
+ * {@code equals}/{@code hashCode} 与 JDK 反射返回的实现保持一致，二者可互相作为缓存键命中。
+ * </p>
+ */
+public final class GenericArrayTypeImpl implements GenericArrayType {
+
+    private final Type genericComponentType;
+
+    /**
+     * 创建泛型数组类型。
+     *
+     * @param genericComponentType 元素类型
+     */
+    public GenericArrayTypeImpl(Type genericComponentType) {
+        this.genericComponentType = genericComponentType;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Type getGenericComponentType() {
+        return genericComponentType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GenericArrayType
+                && Objects.equals(genericComponentType, ((GenericArrayType) o).getGenericComponentType());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(genericComponentType);
+    }
+
+    @Override
+    public String toString() {
+        return genericComponentType.getTypeName() + "[]";
+    }
+}
@@ -1,15 +1,18 @@
 package com.liyu.fastjson.support;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.liyu.fastjson.JSONArray;
 
 import java.io.IOException;
 
 /**
  * Jackson 自定义反序列化器，将 JSON 数组直接反序列化为 {@link JSONArray}。
+ * <p>
+ * 通过 {@link JsonStreamBuilder} 从 token 流构建，不经过 {@code JsonNode} 中间树。
+ * </p>
  */
 final class JSONArrayDeserializer extends JsonDeserializer<JSONArray> {
 
@@ -18,7 +21,10 @@ final class JSONArrayDeserializer extends JsonDeserializer<JSONArray> {
      */
     @Override
     public JSONArray deserialize(JsonParser parser, DeserializationContext context) throws IOException {
-        JsonNode node = parser.getCodec().readTree(parser);
-        return JsonNodeConverter.toJSONArray(node);
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            return JsonStreamBuilder.readArray(parser);
+        }
+        parser.skipChildren();
+        return new JSONArray();
     }
 }
@@ -0,0 +1,50 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.liyu.fastjson.JSONArray;
+
+import java.io.IOException;
+
+/**
+ * Jackson 自定义序列化器，由 {@link JSONArray} 自行写出内部存储。
+ * <p>
+ * 若使用通用的 {@code CollectionSerializer}，会通过 {@code iterator()} 访问元素，
+ * 使写时复制克隆得到的数组在序列化时被迫复制存储。
+ * </p>
+ */
+final class JSONArraySerializer extends StdSerializer<JSONArray> {
+
+    private static final long serialVersionUID = 1L;
+
+    JSONArraySerializer() {
+        super(JSONArray.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serialize(JSONArray value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        value.serialize(gen, provider);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serializeWithType(JSONArray value, JsonGenerator gen, SerializerProvider provider,
+                                  TypeSerializer typeSer) throws IOException {
+        value.serializeWithType(gen, provider, typeSer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty(SerializerProvider provider, JSONArray value) {
+        return value.isEmpty();
+    }
+}
@@ -1,15 +1,18 @@
 package com.liyu.fastjson.support;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.liyu.fastjson.JSONObject;
 
 import java.io.IOException;
 
 /**
  * Jackson 自定义反序列化器，将 JSON 对象直接反序列化为 {@link JSONObject}。
+ * <p>
+ * 通过 {@link JsonStreamBuilder} 从 token 流构建，不经过 {@code JsonNode} 中间树。
+ * </p>
  */
 final class JSONObjectDeserializer extends JsonDeserializer<JSONObject> {
 
@@ -18,7 +21,11 @@ final class JSONObjectDeserializer extends JsonDeserializer<JSONObject> {
      */
     @Override
     public JSONObject deserialize(JsonParser parser, DeserializationContext context) throws IOException {
-        JsonNode node = parser.getCodec().readTree(parser);
-        return JsonNodeConverter.toJSONObject(node);
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.FIELD_NAME || token == JsonToken.END_OBJECT) {
+            return JsonStreamBuilder.readObject(parser);
+        }
+        parser.skipChildren();
+        return new JSONObject();
     }
 }
@@ -0,0 +1,50 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.liyu.fastjson.JSONObject;
+
+import java.io.IOException;
+
+/**
+ * Jackson 自定义序列化器，由 {@link JSONObject} 自行写出内部存储，以便识别未解析的 {@link LazyValue}。
+ * <p>
+ * {@code JSONObject} 实现了 {@code Map}，若不显式注册，Jackson 会选用通用的 {@code MapSerializer}
+ * 并通过 {@code entrySet()} 访问全部值，导致惰性子树被提前解析。
+ * </p>
+ */
+final class JSONObjectSerializer extends StdSerializer<JSONObject> {
+
+    private static final long serialVersionUID = 1L;
+
+    JSONObjectSerializer() {
+        super(JSONObject.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serialize(JSONObject value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        value.serialize(gen, provider);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serializeWithType(JSONObject value, JsonGenerator gen, SerializerProvider provider,
+                                  TypeSerializer typeSer) throws IOException {
+        value.serializeWithType(gen, provider, typeSer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEmpty(SerializerProvider provider, JSONObject value) {
+        return value.isEmpty();
+    }
+}
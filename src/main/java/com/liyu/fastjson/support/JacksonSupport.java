@@ -2,23 +2,36 @@ package com.liyu.fastjson.support;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.liyu.fastjson.JSONArray;
 import com.liyu.fastjson.JSONObject;
 import com.liyu.fastjson.parser.Feature;
 import com.liyu.fastjson.serializer.SerializerFeature;
 
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Jackson {@link ObjectMapper} 内部封装，为 fastjson 公开 API 提供统一的读写能力。
@@ -30,6 +43,67 @@ public final class JacksonSupport {
 
     private static final ObjectMapper DEFAULT_MAPPER = createDefaultMapper();
 
+    private static final ObjectReader DEFAULT_READER = DEFAULT_MAPPER.reader();
+
+    private static final ObjectWriter DEFAULT_WRITER = DEFAULT_MAPPER.writer();
+
+    /**
+     * 影响 {@link ObjectReader} 配置的解析特性，其余特性与读取配置无关，不参与缓存键计算
+     */
+    private static final Feature[] READER_FEATURES = {
+            Feature.AllowComment,
+            Feature.AllowUnQuotedFieldNames,
+            Feature.AllowSingleQuotes,
+            Feature.AllowArbitraryCommas,
+            Feature.IgnoreNotMatch
+    };
+
+    /**
+     * 按特性组合缓存的 ObjectReader；下标由 {@link #readerKey(int)} 计算，容量固定，读写均无锁
+     */
+    private static final AtomicReferenceArray<ObjectReader> READERS =
+            new AtomicReferenceArray<>(2 << READER_FEATURES.length);
+
+    /**
+     * 影响 {@link ObjectWriter} 配置的序列化特性，前三项需要调整 Mapper 级配置
+     */
+    private static final SerializerFeature[] WRITER_FEATURES = {
+            SerializerFeature.WriteMapNullValue,
+            SerializerFeature.SortField,
+            SerializerFeature.MapSortField,
+            SerializerFeature.PrettyFormat,
+            SerializerFeature.WriteDateUseDateFormat,
+            SerializerFeature.UseSingleQuotes
+    };
+
+    private static final int MAPPER_VARIANT_MASK = 0b111;
+
+    private static final int SORT_MASK = 0b110;
+
+    /**
+     * 按特性组合缓存的 ObjectWriter，下标由 {@link #writerKey(int)} 计算
+     */
+    private static final AtomicReferenceArray<ObjectWriter> WRITERS =
+            new AtomicReferenceArray<>(1 << WRITER_FEATURES.length);
+
+    /**
+     * 按 Mapper 级特性组合缓存的 Mapper 副本，同组合的所有 Writer 共享其序列化器缓存
+     */
+    private static final AtomicReferenceArray<ObjectMapper> WRITER_MAPPERS =
+            new AtomicReferenceArray<>(4);
+
+    private static final int MAX_DATE_FORMAT_PATTERNS = 64;
+
+    /**
+     * 日期格式 → 按特性组合缓存的 ObjectWriter
+     */
+    private static final ConcurrentMap<String, AtomicReferenceArray<ObjectWriter>> DATE_FORMAT_WRITERS =
+            new ConcurrentHashMap<>();
+
+    private static final LongAdder DATE_FORMAT_HITS = new LongAdder();
+
+    private static final LongAdder DATE_FORMAT_MISSES = new LongAdder();
+
     private JacksonSupport() {
     }
 
@@ -42,12 +116,91 @@ public final class JacksonSupport {
         return DEFAULT_MAPPER;
     }
 
+    /**
+     * 获取配置了解析特性的 {@link ObjectReader}。
+     *
+     * @param features 解析特性
+     * @return ObjectReader
+     * @see #reader(int)
+     */
+    public static ObjectReader reader(Feature... features) {
+        return reader(Feature.of(features));
+    }
+
+    /**
+     * 按特性位掩码获取预构建的 {@link ObjectReader}。
+     * <p>
+     * 每种特性组合只构建一次，之后无锁返回；所有 Reader 共享默认 Mapper 的反序列化器缓存。
+     * </p>
+     *
+     * @param features 解析特性位掩码，见 {@link Feature#of(Feature...)}
+     * @return ObjectReader
+     */
+    public static ObjectReader reader(int features) {
+        if (features == 0) {
+            return DEFAULT_READER;
+        }
+        int key = readerKey(features);
+        ObjectReader reader = READERS.get(key);
+        if (reader == null) {
+            reader = createReader(key);
+            if (!READERS.compareAndSet(key, null, reader)) {
+                reader = READERS.get(key);
+            }
+        }
+        return reader;
+    }
+
+    private static int readerKey(int features) {
+        // 最低位标记“显式传入了特性”：与旧实现一致，此时未指定 IgnoreNotMatch 会对未知字段报错
+        int key = 1;
+        for (int i = 0; i < READER_FEATURES.length; i++) {
+            if ((features & READER_FEATURES[i].mask) != 0) {
+                key |= 2 << i;
+            }
+        }
+        return key;
+    }
+
+    private static ObjectReader createReader(int key) {
+        ObjectReader reader = DEFAULT_READER;
+        if (hasReaderFeature(key, Feature.AllowComment)) {
+            reader = reader.with(JsonParser.Feature.ALLOW_COMMENTS);
+        }
+        if (hasReaderFeature(key, Feature.AllowUnQuotedFieldNames)) {
+            reader = reader.with(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES);
+        }
+        if (hasReaderFeature(key, Feature.AllowSingleQuotes)) {
+            reader = reader.with(JsonParser.Feature.ALLOW_SINGLE_QUOTES);
+        }
+        if (hasReaderFeature(key, Feature.AllowArbitraryCommas)) {
+            reader = reader.with(JsonReadFeature.ALLOW_TRAILING_COMMA);
+        }
+        if (hasReaderFeature(key, Feature.IgnoreNotMatch)) {
+            reader = reader.without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        } else {
+            reader = reader.with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        }
+        return reader;
+    }
+
+    private static boolean hasReaderFeature(int key, Feature feature) {
+        for (int i = 0; i < READER_FEATURES.length; i++) {
+            if (READER_FEATURES[i] == feature) {
+                return (key & (2 << i)) != 0;
+            }
+        }
+        return false;
+    }
+
     /**
      * 复制默认 Mapper 并应用解析特性，用于单次解析调用。
      *
      * @param features 解析特性
      * @return 配置了特性的 ObjectMapper 副本
+     * @deprecated 每次复制都会丢失反序列化器缓存，请改用 {@link #reader(Feature...)}
      */
+    @Deprecated
     public static ObjectMapper copyMapper(Feature... features) {
         ObjectMapper mapper = DEFAULT_MAPPER.copy();
         applyParserFeatures(mapper, features);
@@ -59,59 +212,244 @@ public final class JacksonSupport {
      *
      * @param features 序列化特性
      * @return ObjectWriter
+     * @see #writer(int)
      */
     public static ObjectWriter writer(SerializerFeature... features) {
-        return createWriter(DEFAULT_MAPPER, features);
+        return writer(SerializerFeature.of(features));
+    }
+
+    /**
+     * 按特性位掩码获取预构建的 {@link ObjectWriter}。
+     * <p>
+     * 每种特性组合只构建一次，之后无锁返回。需要调整 Mapper 级配置的特性
+     * （{@link SerializerFeature#WriteMapNullValue}、{@link SerializerFeature#SortField}、
+     * {@link SerializerFeature#MapSortField}）共享同一个预先复制的 Mapper，序列化器缓存不会丢失。
+     * </p>
+     *
+     * @param features 序列化特性位掩码，见 {@link SerializerFeature#of(SerializerFeature...)}
+     * @return ObjectWriter
+     */
+    public static ObjectWriter writer(int features) {
+        int key = writerKey(features);
+        if (key == 0) {
+            return DEFAULT_WRITER;
+        }
+        ObjectWriter writer = WRITERS.get(key);
+        if (writer == null) {
+            writer = configureWriter(writerMapper(key).writer(), key);
+            if (!WRITERS.compareAndSet(key, null, writer)) {
+                writer = WRITERS.get(key);
+            }
+        }
+        return writer;
     }
 
     /**
      * 基于指定 Mapper 获取配置了序列化特性的 {@link ObjectWriter}。
+     * <p>该方法不做缓存，需要调整 Mapper 级配置时会复制传入的 Mapper。</p>
      *
      * @param mapper   基础 ObjectMapper
      * @param features 序列化特性
      * @return ObjectWriter
      */
     public static ObjectWriter writer(ObjectMapper mapper, SerializerFeature... features) {
-        return createWriter(mapper, features);
+        int key = writerKey(SerializerFeature.of(features));
+        ObjectMapper target = mapper;
+        if ((key & MAPPER_VARIANT_MASK) != 0) {
+            target = configureMapper(mapper.copy(), key);
+        }
+        return configureWriter(target.writer(), key);
     }
 
-    private static ObjectWriter createWriter(ObjectMapper baseMapper, SerializerFeature... features) {
-        if (features == null || features.length == 0) {
-            return baseMapper.writer();
+    /**
+     * 获取使用指定日期格式的 {@link ObjectWriter}，按（日期格式，特性组合）缓存。
+     * <p>
+     * 缓存的日期格式实例只作为原型，Jackson 在每次序列化时会克隆后使用，因此可被多线程共享。
+     * 缓存最多保留 {@value #MAX_DATE_FORMAT_PATTERNS} 种日期格式，超出后新格式每次调用都会临时构建，
+     * 可通过 {@link #dateFormatWriterStats()} 观察命中情况。
+     * </p>
+     *
+     * @param dateFormat 日期格式，如 {@code yyyy-MM-dd HH:mm:ss}；为 {@code null} 时使用默认格式
+     * @param features   序列化特性位掩码
+     * @return ObjectWriter
+     */
+    public static ObjectWriter writer(String dateFormat, int features) {
+        if (dateFormat == null) {
+            return writer(features);
+        }
+        int key = writerKey(features);
+        AtomicReferenceArray<ObjectWriter> writers = DATE_FORMAT_WRITERS.get(dateFormat);
+        if (writers == null) {
+            if (DATE_FORMAT_WRITERS.size() >= MAX_DATE_FORMAT_PATTERNS) {
+                DATE_FORMAT_MISSES.increment();
+                return createDateFormatWriter(dateFormat, key);
+            }
+            writers = DATE_FORMAT_WRITERS.computeIfAbsent(dateFormat,
+                    k -> new AtomicReferenceArray<>(1 << WRITER_FEATURES.length));
+        }
+        ObjectWriter writer = writers.get(key);
+        if (writer != null) {
+            DATE_FORMAT_HITS.increment();
+            return writer;
+        }
+        DATE_FORMAT_MISSES.increment();
+        writer = createDateFormatWriter(dateFormat, key);
+        if (!writers.compareAndSet(key, null, writer)) {
+            writer = writers.get(key);
+        }
+        return writer;
+    }
+
+    /**
+     * 返回日期格式 Writer 缓存的命中统计。
+     *
+     * @return 统计快照，{@link CacheStats#getSize()} 为已缓存的日期格式数量
+     */
+    public static CacheStats dateFormatWriterStats() {
+        return new CacheStats(DATE_FORMAT_HITS.sum(), DATE_FORMAT_MISSES.sum(), DATE_FORMAT_WRITERS.size());
+    }
+
+    private static ObjectWriter createDateFormatWriter(String dateFormat, int key) {
+        return writer(toFeatureMask(key)).with(new SimpleDateFormat(dateFormat));
+    }
+
+    private static int toFeatureMask(int key) {
+        int features = 0;
+        for (int i = 0; i < WRITER_FEATURES.length; i++) {
+            if ((key & (1 << i)) != 0) {
+                features |= WRITER_FEATURES[i].mask;
+            }
+        }
+        return features;
+    }
+
+    /**
+     * 将内存中的对象（通常是 {@link JSONObject}/{@link JSONArray}）直接绑定为目标类型，不产生 JSON 文本。
+     * <p>
+     * 对象先按默认序列化配置写入 {@link TokenBuffer}，再由目标类型的反序列化器从 token 流读取；
+     * 数值、字符串等以原生形式缓存在 token 中，省去了文本生成和重新词法分析。
+     * </p>
+     *
+     * @param value 源对象
+     * @param type  目标类型
+     * @param <T>   目标泛型
+     * @return 目标对象
+     * @throws IOException 序列化或绑定失败时抛出
+     */
+    public static <T> T convertValue(Object value, JavaType type) throws IOException {
+        return convertValue(value, DEFAULT_READER.forType(type));
+    }
+
+    /**
+     * 使用已解析好目标类型的 {@link ObjectReader} 将对象直接绑定为目标类型。
+     * <p>批量转换时可复用同一个 reader，只解析一次反序列化器。</p>
+     *
+     * @param value  源对象
+     * @param reader 已通过 {@link ObjectReader#forType(JavaType)} 指定目标类型的 reader
+     * @param <T>    目标泛型
+     * @return 目标对象
+     * @throws IOException 序列化或绑定失败时抛出
+     */
+    public static <T> T convertValue(Object value, ObjectReader reader) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(DEFAULT_MAPPER, false);
+        buffer.forceUseOfBigDecimal(true);
+        DEFAULT_WRITER.writeValue(buffer, value);
+        try (JsonParser parser = buffer.asParser()) {
+            return reader.readValue(parser);
         }
-        EnumSet<SerializerFeature> set = EnumSet.noneOf(SerializerFeature.class);
-        for (SerializerFeature feature : features) {
-            set.add(feature);
+    }
+
+    /**
+     * 使用指定 Writer 序列化对象并编码为指定字符集的字节数组。
+     * <p>
+     * UTF-8 直接走 Jackson 原生字节生成器；其他字符集由 {@link CharsetEncodingWriter} 边生成边编码，
+     * 不会产生中间字符串。
+     * </p>
+     *
+     * @param writer  ObjectWriter
+     * @param value   待序列化对象
+     * @param charset 目标字符集，为 {@code null} 时使用 UTF-8
+     * @return JSON 字节数组
+     * @throws IOException 序列化失败时抛出
+     */
+    public static byte[] writeValueAsBytes(ObjectWriter writer, Object value, Charset charset) throws IOException {
+        if (charset == null || StandardCharsets.UTF_8.equals(charset)) {
+            return writer.writeValueAsBytes(value);
+        }
+        BufferRecycler recycler = writer.getFactory()._getBufferRecycler();
+        try (ByteArrayBuilder out = new ByteArrayBuilder(recycler)) {
+            // ObjectWriter 写完后会关闭 Writer，编码器在关闭时写出剩余字节
+            writer.writeValue(new CharsetEncodingWriter(out, charset, recycler), value);
+            return out.getClearAndRelease();
+        } finally {
+            recycler.releaseToPool();
         }
+    }
 
-        ObjectMapper mapper = baseMapper;
-        boolean needMapperCopy = set.contains(SerializerFeature.WriteMapNullValue)
-                || set.contains(SerializerFeature.SortField)
-                || set.contains(SerializerFeature.MapSortField);
-        if (needMapperCopy) {
-            mapper = baseMapper.copy();
-            if (set.contains(SerializerFeature.WriteMapNullValue)) {
-                mapper.setSerializationInclusion(JsonInclude.Include.ALWAYS);
+    private static int writerKey(int features) {
+        if (features == 0) {
+            return 0;
+        }
+        int key = 0;
+        for (int i = 0; i < WRITER_FEATURES.length; i++) {
+            if ((features & WRITER_FEATURES[i].mask) != 0) {
+                key |= 1 << i;
             }
-            if (set.contains(SerializerFeature.SortField) || set.contains(SerializerFeature.MapSortField)) {
-                mapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+        }
+        return key;
+    }
+
+    private static ObjectMapper writerMapper(int key) {
+        if ((key & MAPPER_VARIANT_MASK) == 0) {
+            return DEFAULT_MAPPER;
+        }
+        // SortField 与 MapSortField 对 Mapper 的调整相同，归并为同一个变体
+        int variant = (key & 1) | ((key & SORT_MASK) != 0 ? 2 : 0);
+        ObjectMapper mapper = WRITER_MAPPERS.get(variant);
+        if (mapper == null) {
+            mapper = configureMapper(DEFAULT_MAPPER.copy(), key & MAPPER_VARIANT_MASK);
+            if (!WRITER_MAPPERS.compareAndSet(variant, null, mapper)) {
+                mapper = WRITER_MAPPERS.get(variant);
             }
         }
+        return mapper;
+    }
 
-        ObjectWriter writer = mapper.writer();
+    private static ObjectMapper configureMapper(ObjectMapper mapper, int key) {
+        if (hasWriterFeature(key, SerializerFeature.WriteMapNullValue)) {
+            mapper.setSerializationInclusion(JsonInclude.Include.ALWAYS);
+        }
+        if (hasWriterFeature(key, SerializerFeature.SortField) || hasWriterFeature(key, SerializerFeature.MapSortField)) {
+            mapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+        }
+        return mapper;
+    }
 
-        if (set.contains(SerializerFeature.PrettyFormat)) {
+    private static ObjectWriter configureWriter(ObjectWriter writer, int key) {
+        if (hasWriterFeature(key, SerializerFeature.MapSortField)) {
+            writer = writer.with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        }
+        if (hasWriterFeature(key, SerializerFeature.PrettyFormat)) {
             writer = writer.with(SerializationFeature.INDENT_OUTPUT);
         }
-        if (set.contains(SerializerFeature.WriteDateUseDateFormat)) {
+        if (hasWriterFeature(key, SerializerFeature.WriteDateUseDateFormat)) {
             writer = writer.without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         }
-        if (set.contains(SerializerFeature.UseSingleQuotes)) {
+        if (hasWriterFeature(key, SerializerFeature.UseSingleQuotes)) {
             writer = writer.without(com.fasterxml.jackson.core.JsonGenerator.Feature.QUOTE_FIELD_NAMES);
         }
         return writer;
     }
 
+    private static boolean hasWriterFeature(int key, SerializerFeature feature) {
+        for (int i = 0; i < WRITER_FEATURES.length; i++) {
+            if (WRITER_FEATURES[i] == feature) {
+                return (key & (1 << i)) != 0;
+            }
+        }
+        return false;
+    }
+
     private static ObjectMapper createDefaultMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
@@ -131,6 +469,10 @@ public final class JacksonSupport {
         SimpleModule module = new SimpleModule("FastjsonContainerModule");
         module.addDeserializer(JSONObject.class, new JSONObjectDeserializer());
         module.addDeserializer(JSONArray.class, new JSONArrayDeserializer());
+        module.addSerializer(JSONObject.class, new JSONObjectSerializer());
+        module.addSerializer(JSONArray.class, new JSONArraySerializer());
+        module.addSerializer(LazyValue.class, new LazyValueSerializer());
+        module.addSerializer(LazyNumber.class, new LazyNumberSerializer());
         return module;
     }
 
@@ -174,10 +516,13 @@ public final class JacksonSupport {
             return node.booleanValue();
         }
         if (node.isIntegralNumber()) {
-            if (node.canConvertToLong() && !node.canConvertToInt()) {
+            if (node.canConvertToInt()) {
+                return node.intValue();
+            }
+            if (node.canConvertToLong()) {
                 return node.longValue();
             }
-            return node.intValue();
+            return node.bigIntegerValue();
         }
         if (node.isFloatingPointNumber()) {
             return node.decimalValue();
@@ -0,0 +1,132 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.liyu.fastjson.JSONException;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 将 JSON 树中的元素批量转换为同一目标类型的转换器。
+ * <p>
+ * 目标类型的 {@link ObjectReader}（及其反序列化器）在构造时解析一次，之后每个元素都复用它，
+ * 并通过 {@link JacksonSupport#convertValue(Object, ObjectReader)} 直接从内存树绑定，不产生 JSON 文本。
+ * </p>
+ * <p>实例不可变，可在多线程间共享。</p>
+ *
+ * @param <T> 目标类型
+ */
+public final class JavaListConverter<T> {
+
+    private final Class<T> clazz;
+    private final ObjectReader reader;
+
+    /**
+     * 创建转换器。
+     *
+     * @param clazz 元素目标类型
+     */
+    public JavaListConverter(Class<T> clazz) {
+        this.clazz = clazz;
+        this.reader = JacksonSupport.reader().forType(JavaTypeCache.of(clazz));
+    }
+
+    /**
+     * 转换单个元素。
+     *
+     * @param value 源元素
+     * @return 目标对象；{@code value} 为 {@code null} 时返回 {@code null}
+     */
+    public T convert(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (clazz.isInstance(value)) {
+            return clazz.cast(value);
+        }
+        try {
+            return JacksonSupport.convertValue(value, reader);
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 顺序转换全部元素。
+     *
+     * @param source 源元素列表
+     * @return 新的可修改列表
+     */
+    public List<T> convertAll(List<?> source) {
+        List<T> result = new ArrayList<>(source.size());
+        for (Object value : source) {
+            result.add(convert(value));
+        }
+        return result;
+    }
+
+    /**
+     * 使用 ForkJoin 公共池并行转换全部元素，结果顺序与源列表一致。
+     *
+     * @param source 源元素列表
+     * @return 新的可修改列表
+     */
+    public List<T> convertAllParallel(List<?> source) {
+        Object[] values = source.toArray();
+        Arrays.parallelSetAll(values, i -> convert(values[i]));
+        @SuppressWarnings("unchecked")
+        List<T> result = (List<T>) new ArrayList<>(Arrays.asList(values));
+        return result;
+    }
+
+    /**
+     * 返回惰性转换视图：元素在首次访问时才转换，转换结果会被缓存。
+     * <p>
+     * 视图基于调用时源列表的快照，之后对源列表的修改不会反映到视图中。
+     * 视图为只读，且与 {@code JSONArray} 一样非线程安全。
+     * </p>
+     *
+     * @param source 源元素列表
+     * @return 只读惰性列表
+     */
+    public List<T> lazyView(List<?> source) {
+        return new LazyList<>(this, source.toArray());
+    }
+
+    private static final class LazyList<T> extends AbstractList<T> implements RandomAccess {
+
+        private static final Object UNCONVERTED = new Object();
+
+        private final JavaListConverter<T> converter;
+        private final Object[] source;
+        private final Object[] converted;
+
+        LazyList(JavaListConverter<T> converter, Object[] source) {
+            this.converter = converter;
+            this.source = source;
+            this.converted = new Object[source.length];
+            Arrays.fill(converted, UNCONVERTED);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            Object value = converted[index];
+            if (value == UNCONVERTED) {
+                value = converter.convert(source[index]);
+                converted[index] = value;
+                source[index] = null;
+            }
+            return (T) value;
+        }
+
+        @Override
+        public int size() {
+            return source.length;
+        }
+    }
+}
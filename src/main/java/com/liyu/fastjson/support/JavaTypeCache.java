@@ -0,0 +1,169 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link Type} → Jackson {@link JavaType} 的解析缓存。
+ * <p>
+ * {@link Class} 及 {@code List<Class>} 通过 {@link ClassValue} 缓存，随类卸载自动回收；
+ * 其它泛型类型（{@code ParameterizedType} 等）按 {@code equals} 缓存在其锚定类（见 {@link #anchorOf(Type)}）的
+ * {@link ClassValue} 中，同样随应用类加载器一起回收，不会在重新部署后阻止旧的类加载器被回收。
+ * 每个锚定类最多缓存 {@value #MAX_GENERIC_TYPES} 个类型，超出后每次调用都会重新解析。
+ * </p>
+ * <p>所有类型均由默认 Mapper 的 {@link TypeFactory} 解析，结果不可变，可在多线程间共享。</p>
+ */
+public final class JavaTypeCache {
+
+    private static final int MAX_GENERIC_TYPES = 1024;
+
+    private static final TypeFactory TYPE_FACTORY = JacksonSupport.defaultMapper().getTypeFactory();
+
+    private static final ClassValue<JavaType> CLASS_TYPES = new ClassValue<JavaType>() {
+        @Override
+        protected JavaType computeValue(Class<?> type) {
+            return TYPE_FACTORY.constructType(type);
+        }
+    };
+
+    private static final ClassValue<JavaType> LIST_TYPES = new ClassValue<JavaType>() {
+        @Override
+        protected JavaType computeValue(Class<?> elementType) {
+            return TYPE_FACTORY.constructCollectionType(List.class, elementType);
+        }
+    };
+
+    private static final ClassValue<ConcurrentMap<Type, JavaType>> GENERIC_TYPES =
+            new ClassValue<ConcurrentMap<Type, JavaType>>() {
+                @Override
+                protected ConcurrentMap<Type, JavaType> computeValue(Class<?> anchor) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private JavaTypeCache() {
+    }
+
+    /**
+     * 解析 {@link Type} 对应的 {@link JavaType}。
+     *
+     * @param type Java 类型
+     * @return JavaType
+     */
+    public static JavaType of(Type type) {
+        if (type instanceof Class) {
+            return CLASS_TYPES.get((Class<?>) type);
+        }
+        Class<?> anchor = anchorOf(type);
+        if (anchor == null) {
+            return TYPE_FACTORY.constructType(type);
+        }
+        ConcurrentMap<Type, JavaType> types = GENERIC_TYPES.get(anchor);
+        JavaType javaType = types.get(type);
+        if (javaType == null) {
+            javaType = TYPE_FACTORY.constructType(type);
+            if (types.size() < MAX_GENERIC_TYPES) {
+                types.putIfAbsent(type, javaType);
+            }
+        }
+        return javaType;
+    }
+
+    /**
+     * 返回类型中出现的、类加载器位于委托链最末端的类，以它为键缓存该类型的解析结果，
+     * 类型中其余的类都由它的类加载器或其祖先加载，因此缓存项随它一起被回收。
+     * 例如 {@code Map<String, List<User>>} 的锚定类为 {@code User}。
+     *
+     * @param type Java 类型
+     * @return 锚定类；类型中的类来自互不相关的类加载器或含有未知的 {@link Type} 实现时返回 {@code null}，此时不应缓存
+     */
+    public static Class<?> anchorOf(Type type) {
+        Class<?>[] anchor = new Class<?>[1];
+        return collect(type, anchor) ? anchor[0] : null;
+    }
+
+    private static boolean collect(Type type, Class<?>[] anchor) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            while (clazz.isArray()) {
+                clazz = clazz.getComponentType();
+            }
+            return merge(clazz, anchor);
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Type owner = parameterized.getOwnerType();
+            return collect(parameterized.getRawType(), anchor) && (owner == null || collect(owner, anchor))
+                    && collectAll(parameterized.getActualTypeArguments(), anchor);
+        }
+        if (type instanceof GenericArrayType) {
+            return collect(((GenericArrayType) type).getGenericComponentType(), anchor);
+        }
+        if (type instanceof WildcardType) {
+            WildcardType wildcard = (WildcardType) type;
+            return collectAll(wildcard.getUpperBounds(), anchor) && collectAll(wildcard.getLowerBounds(), anchor);
+        }
+        if (type instanceof TypeVariable) {
+            // 边界可能引用自身（如 T extends Comparable<T>），只取声明它的类
+            GenericDeclaration declaration = ((TypeVariable<?>) type).getGenericDeclaration();
+            if (declaration instanceof Class) {
+                return merge((Class<?>) declaration, anchor);
+            }
+            return declaration instanceof Executable && merge(((Executable) declaration).getDeclaringClass(), anchor);
+        }
+        return false;
+    }
+
+    private static boolean collectAll(Type[] types, Class<?>[] anchor) {
+        for (Type type : types) {
+            if (!collect(type, anchor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean merge(Class<?> clazz, Class<?>[] anchor) {
+        if (anchor[0] == null || isAncestor(anchor[0].getClassLoader(), clazz.getClassLoader())) {
+            anchor[0] = clazz;
+            return true;
+        }
+        return isAncestor(clazz.getClassLoader(), anchor[0].getClassLoader());
+    }
+
+    /**
+     * {@code ancestor} 是否为 {@code loader} 本身或其祖先，{@code null} 表示启动类加载器
+     */
+    private static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+        if (ancestor == null) {
+            return true;
+        }
+        for (ClassLoader current = loader; current != null; current = current.getParent()) {
+            if (current == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析 {@code List<elementType>} 对应的 {@link JavaType}。
+     *
+     * @param elementType 元素类型
+     * @return JavaType
+     */
+    public static JavaType listOf(Class<?> elementType) {
+        return LIST_TYPES.get(elementType);
+    }
+}
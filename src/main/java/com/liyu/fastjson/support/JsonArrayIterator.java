@@ -0,0 +1,175 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.liyu.fastjson.JSONArray;
+import com.liyu.fastjson.JSONException;
+import com.liyu.fastjson.JSONObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 逐个读取顶层 JSON 数组元素的迭代器，由 {@code JSON.iterateArray} 创建。
+ * <p>
+ * 每次 {@link #next()} 只从 parser 读取并绑定一个元素，已返回的元素不再被引用，
+ * 内存占用与数组长度无关。元素类型为 {@link JSONObject}、{@link JSONArray} 或 {@link Object} 时
+ * 直接由 token 流构建（同 {@code JSON.parseObject}），所有元素共享同一份键布局缓存；
+ * 其他类型使用解析一次的 {@link ObjectReader} 绑定。
+ * </p>
+ * <p>
+ * 读到数组结束或读取出错时自动关闭；提前结束遍历时需调用 {@link #close()}，关闭时同时关闭底层输入。
+ * 实例非线程安全。
+ * </p>
+ *
+ * <pre>{@code
+ * try (JsonArrayIterator<User> users = JSON.iterateArray(in, User.class)) {
+ *     while (users.hasNext()) {
+ *         handle(users.next());
+ *     }
+ * }
+ * }</pre>
+ *
+ * @param <T> 元素类型
+ */
+public final class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+
+    private final JsonParser parser;
+    private final Class<T> clazz;
+    private final ObjectReader reader;
+    private final JsonStreamBuilder builder;
+
+    private JsonToken pending;
+    private boolean closed;
+
+    /**
+     * 创建迭代器并读取数组起始 token。
+     *
+     * @param parser   位于输入开头的 Jackson 解析器
+     * @param clazz    元素类型
+     * @param reader   已配置解析特性的 reader
+     * @param features 解析特性位掩码
+     */
+    public JsonArrayIterator(JsonParser parser, Class<T> clazz, ObjectReader reader, int features) {
+        this.parser = parser;
+        this.clazz = clazz;
+        if (clazz == JSONObject.class || clazz == JSONArray.class || clazz == Object.class) {
+            this.reader = null;
+            this.builder = new JsonStreamBuilder(features);
+        } else {
+            this.reader = reader.forType(JavaTypeCache.of(clazz));
+            this.builder = null;
+        }
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                close();
+            } else if (token != JsonToken.START_ARRAY) {
+                close();
+                throw new JSONException("expect array, but " + JsonStreamBuilder.describe(token));
+            }
+        } catch (IOException e) {
+            closeQuietly();
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY) {
+                close();
+                return false;
+            }
+            if (token == null) {
+                throw new JSONException("unexpected end of input, array not closed");
+            }
+            pending = token;
+            return true;
+        } catch (IOException e) {
+            closeQuietly();
+            throw new JSONException(e.getMessage(), e);
+        } catch (RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JsonToken token = pending;
+        pending = null;
+        try {
+            if (builder == null) {
+                return reader.readValue(parser);
+            }
+            if (token != JsonToken.VALUE_NULL) {
+                if (clazz == JSONObject.class && token != JsonToken.START_OBJECT) {
+                    throw new JSONException("expect object, but " + JsonStreamBuilder.describe(token));
+                }
+                if (clazz == JSONArray.class && token != JsonToken.START_ARRAY) {
+                    throw new JSONException("expect array, but " + JsonStreamBuilder.describe(token));
+                }
+            }
+            return clazz.cast(builder.readValue(parser, token));
+        } catch (IOException e) {
+            closeQuietly();
+            throw new JSONException(e.getMessage(), e);
+        } catch (RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    /**
+     * 以顺序 {@link Stream} 的形式遍历剩余元素，关闭流时关闭本迭代器。
+     *
+     * @return 元素流
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * 关闭 parser 及底层输入，可重复调用。
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending = null;
+        try {
+            parser.close();
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (JSONException ignored) {
+            // 保留原始异常
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.liyu.fastjson.JSONArray;
+import com.liyu.fastjson.JSONException;
+import com.liyu.fastjson.JSONObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 逐行读取 JSON Lines（NDJSON）输入的迭代器，由 {@code JSON.readLines} 创建。
+ * <p>
+ * 每行一个 JSON 值，行尾可为 {@code \n} 或 {@code \r\n}，空白行被跳过。按字节切分行，
+ * 行完整位于读缓冲区中时直接在缓冲区上解析，不创建行字符串；所有行共享同一个已解析好的
+ * {@link ObjectReader}（或同一个构建器及其键布局缓存），不会为每行重新查找反序列化器。
+ * 元素类型规则同 {@link JsonArrayIterator}。
+ * </p>
+ * <p>
+ * 未指定 {@link ErrorHandler} 时遇到无法解析的行抛出 {@link JSONException}；指定后交给处理器并跳过该行继续读取。
+ * 读到末尾或出错时自动关闭，提前结束时需调用 {@link #close()}，关闭时同时关闭底层输入。实例非线程安全。
+ * </p>
+ *
+ * @param <T> 元素类型
+ */
+public final class JsonLinesReader<T> implements Iterator<T>, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 无法解析的行的处理器。
+     */
+    @FunctionalInterface
+    public interface ErrorHandler {
+
+        /**
+         * 处理一行无法解析的输入，返回后继续读取下一行；抛出异常则终止读取。
+         *
+         * @param lineNumber 行号，从 1 开始
+         * @param line       该行内容（不含行尾）
+         * @param error      解析错误
+         */
+        void onError(long lineNumber, String line, JSONException error);
+    }
+
+    private final InputStream input;
+    private final Class<T> clazz;
+    private final ObjectReader reader;
+    private final ErrorHandler errorHandler;
+    private final int features;
+
+    private JsonStreamBuilder builder;
+
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean eof;
+
+    /**
+     * 当前行内容的结束下标（不含行尾）与下一行的起始下标，由 {@link #nextLine()} 设置
+     */
+    private int lineEnd;
+    private int lineNext;
+
+    private long lineNumber;
+    private T pending;
+    private boolean hasPending;
+    private boolean closed;
+
+    /**
+     * 创建读取器。
+     *
+     * @param input        输入流
+     * @param clazz        元素类型
+     * @param reader       已配置解析特性的 reader
+     * @param features     解析特性位掩码
+     * @param errorHandler 无法解析的行的处理器，{@code null} 表示抛出异常
+     */
+    public JsonLinesReader(InputStream input, Class<T> clazz, ObjectReader reader, int features,
+                           ErrorHandler errorHandler) {
+        this(input, new byte[BUFFER_SIZE], 0, false, clazz, readerFor(clazz, reader), features, errorHandler);
+    }
+
+    /**
+     * 读取已在内存中的若干完整行，供 {@link ParallelJsonLinesReader} 使用。
+     *
+     * @param data         数据
+     * @param length       有效字节数
+     * @param firstLine    第一行的行号
+     * @param clazz        元素类型
+     * @param reader       {@link #readerFor(Class, ObjectReader)} 的结果
+     * @param features     解析特性位掩码
+     * @param errorHandler 无法解析的行的处理器
+     */
+    JsonLinesReader(byte[] data, int length, long firstLine, Class<T> clazz, ObjectReader reader, int features,
+                    ErrorHandler errorHandler) {
+        this(null, data, length, true, clazz, reader, features, errorHandler);
+        this.lineNumber = firstLine - 1;
+    }
+
+    private JsonLinesReader(InputStream input, byte[] buffer, int limit, boolean eof, Class<T> clazz,
+                            ObjectReader reader, int features, ErrorHandler errorHandler) {
+        this.input = input;
+        this.buffer = buffer;
+        this.limit = limit;
+        this.eof = eof;
+        this.clazz = clazz;
+        this.reader = reader;
+        this.builder = isUntyped(clazz) ? new JsonStreamBuilder(features) : null;
+        this.errorHandler = errorHandler;
+        this.features = features;
+    }
+
+    /**
+     * 返回绑定元素使用的 reader：{@link JSONObject}/{@link JSONArray}/{@link Object} 由构建器读取，原样返回，
+     * 其他类型返回绑定到该类型的 reader，可在多个读取器间共享。
+     *
+     * @param clazz  元素类型
+     * @param reader 已配置解析特性的 reader
+     * @return reader
+     */
+    static ObjectReader readerFor(Class<?> clazz, ObjectReader reader) {
+        return isUntyped(clazz) ? reader : reader.forType(JavaTypeCache.of(clazz));
+    }
+
+    private static boolean isUntyped(Class<?> clazz) {
+        return clazz == JSONObject.class || clazz == JSONArray.class || clazz == Object.class;
+    }
+
+    /**
+     * 返回最近读取的行号，从 1 开始。
+     *
+     * @return 行号
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (hasPending) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            while (nextLine()) {
+                int start = position;
+                int end = lineEnd;
+                position = lineNext;
+                lineNumber++;
+                if (isBlank(start, end)) {
+                    continue;
+                }
+                try {
+                    pending = parse(start, end);
+                    hasPending = true;
+                    return true;
+                } catch (JSONException e) {
+                    if (errorHandler == null) {
+                        throw e;
+                    }
+                    if (builder != null) {
+                        // 出错时构建器的暂存栈未清理，换用新的实例
+                        builder = new JsonStreamBuilder(features);
+                    }
+                    errorHandler.onError(lineNumber, new String(buffer, start, end - start, StandardCharsets.UTF_8), e);
+                }
+            }
+            close();
+            return false;
+        } catch (IOException e) {
+            closeQuietly();
+            throw new JSONException(e.getMessage(), e);
+        } catch (RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T value = pending;
+        pending = null;
+        hasPending = false;
+        return value;
+    }
+
+    /**
+     * 以顺序 {@link Stream} 的形式遍历剩余元素，关闭流时关闭本读取器。
+     *
+     * @return 元素流
+     */
+    public Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * 关闭底层输入，可重复调用。
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending = null;
+        hasPending = false;
+        if (input == null) {
+            return;
+        }
+        try {
+            input.close();
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 定位从 {@code position} 开始的下一行，必要时读入更多数据；行始终完整位于缓冲区中。
+     */
+    private boolean nextLine() throws IOException {
+        int scan = position;
+        while (true) {
+            for (int i = scan; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    lineNext = i + 1;
+                    lineEnd = i > position && buffer[i - 1] == '\r' ? i - 1 : i;
+                    return true;
+                }
+            }
+            scan = limit;
+            if (eof) {
+                if (position == limit) {
+                    return false;
+                }
+                lineNext = limit;
+                lineEnd = buffer[limit - 1] == '\r' ? limit - 1 : limit;
+                return true;
+            }
+            // 当前行未结束：把行首移到缓冲区开头，容纳不下时扩容
+            int length = limit - position;
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, length);
+                scan -= position;
+                position = 0;
+                limit = length;
+            } else if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length << 1);
+            }
+            int n = input.read(buffer, limit, buffer.length - limit);
+            if (n < 0) {
+                eof = true;
+            } else {
+                limit += n;
+            }
+        }
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private T parse(int start, int end) {
+        try (JsonParser parser = reader.createParser(buffer, start, end - start)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new JSONException("no value at line " + lineNumber);
+            }
+            T value;
+            if (builder == null) {
+                value = reader.readValue(parser);
+            } else {
+                if (token != JsonToken.VALUE_NULL) {
+                    if (clazz == JSONObject.class && token != JsonToken.START_OBJECT) {
+                        throw new JSONException("expect object, but " + JsonStreamBuilder.describe(token));
+                    }
+                    if (clazz == JSONArray.class && token != JsonToken.START_ARRAY) {
+                        throw new JSONException("expect array, but " + JsonStreamBuilder.describe(token));
+                    }
+                }
+                value = clazz.cast(builder.readValue(parser, token));
+            }
+            if (parser.nextToken() != null) {
+                throw new JSONException("unexpected content after value at line " + lineNumber);
+            }
+            return value;
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (JSONException ignored) {
+            // 保留原始异常
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.liyu.fastjson.JSON;
+import com.liyu.fastjson.JSONArray;
+import com.liyu.fastjson.JSONException;
+import com.liyu.fastjson.JSONObject;
+import com.liyu.fastjson.parser.Feature;
+import com.liyu.fastjson.parser.ParserConfig;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * 基于 Jackson {@link JsonParser} token 流直接构建 {@link JSONObject}/{@link JSONArray} 的构建器。
+ * <p>
+ * 与 {@code readTree} + {@link JsonNodeConverter} 的两段式转换不同，本类边读 token 边构建容器，
+ * 不会产生中间的 {@code JsonNode} 树。同一层级的字段/元素先暂存在可复用的栈中，
+ * 容器结束时再按确切大小创建 {@link JSONObject}/{@link JSONArray}，避免扩容。
+ * </p>
+ * <p>
+ * 同一次解析中键序列相同的对象（如记录数组的各元素）共享同一个 {@link KeyLayout}，只各自保存值数组。
+ * </p>
+ * <p>
+ * 数值按 {@link Feature#UseBigDecimal}、{@link Feature#UseLongForInts}、{@link Feature#UseBigIntegerForInts}
+ * （与 {@link JSON#DEFAULT_PARSER_FEATURE} 合并）转换；启用 {@link ParserConfig#setLazyNumber(boolean)} 后，
+ * 小数以 {@link LazyNumber} 占位，直到读取时才解码。设置了 {@link ParserConfig#setStringCanonicalizer}
+ * 时，字符串值经 {@link StringCanonicalizer} 去重。
+ * </p>
+ * <p>
+ * 实例非线程安全，每次解析创建一个即可；一般通过静态方法 {@link #read(JsonParser)} 使用。
+ * </p>
+ */
+public final class JsonStreamBuilder {
+
+    private static final int INITIAL_STACK_SIZE = 32;
+
+    /**
+     * 最近使用的键布局缓存槽数，按键序列哈希直接映射
+     */
+    private static final int LAYOUT_CACHE_SIZE = 16;
+
+    /**
+     * 数值读取方式位：小数读取为 {@link Double}
+     */
+    private static final int FLOAT_AS_DOUBLE = 1;
+
+    /**
+     * 数值读取方式位：小数读取为 {@link LazyNumber}
+     */
+    private static final int FLOAT_AS_LAZY = 1 << 1;
+
+    /**
+     * 数值读取方式位：整数读取为 {@link Long}
+     */
+    private static final int INT_AS_LONG = 1 << 2;
+
+    /**
+     * 数值读取方式位：整数读取为 {@link java.math.BigInteger}
+     */
+    private static final int INT_AS_BIG_INTEGER = 1 << 3;
+
+    private final boolean linkedHashMap;
+    private final int numbers;
+    private final boolean columnar;
+    private final StringCanonicalizer strings;
+
+    private String[] names = new String[INITIAL_STACK_SIZE];
+    private Object[] values = new Object[INITIAL_STACK_SIZE];
+    private int top;
+
+    private KeyLayout[] layouts;
+
+    /**
+     * 按解析特性创建构建器；多次调用 {@link #readValue(JsonParser, JsonToken)} 时共享键布局缓存。
+     *
+     * @param features 解析特性位掩码
+     */
+    JsonStreamBuilder(int features) {
+        this.linkedHashMap = ParserConfig.getGlobalInstance().isUseLinkedHashMap();
+        this.numbers = numberMode(features);
+        this.columnar = ParserConfig.getGlobalInstance().isColumnarArray();
+        this.strings = ParserConfig.getGlobalInstance().getStringCanonicalizer();
+    }
+
+    /**
+     * 根据解析特性计算 {@link #readScalar(JsonParser, JsonToken, int, StringCanonicalizer)} 使用的数值读取方式。
+     *
+     * @param features 解析特性位掩码，会与 {@link JSON#DEFAULT_PARSER_FEATURE} 合并
+     * @return 数值读取方式
+     */
+    static int numberMode(int features) {
+        int effective = features | JSON.DEFAULT_PARSER_FEATURE;
+        int mode = 0;
+        if (!Feature.isEnabled(effective, Feature.UseBigDecimal)) {
+            mode |= FLOAT_AS_DOUBLE;
+        } else if (ParserConfig.getGlobalInstance().isLazyNumber()) {
+            mode |= FLOAT_AS_LAZY;
+        }
+        if (Feature.isEnabled(effective, Feature.UseBigIntegerForInts)) {
+            mode |= INT_AS_BIG_INTEGER;
+        } else if (Feature.isEnabled(effective, Feature.UseLongForInts)) {
+            mode |= INT_AS_LONG;
+        }
+        return mode;
+    }
+
+    /**
+     * 从 parser 读取一个完整的 JSON 值。
+     * <p>
+     * 若 parser 尚未指向任何 token，会先前进一个 token；读取结束后 parser 停在该值的最后一个 token 上。
+     * </p>
+     *
+     * @param parser Jackson 解析器
+     * @return {@link JSONObject}、{@link JSONArray} 或基本类型值；输入为空时返回 {@code null}
+     * @throws IOException 读取或语法错误时抛出
+     */
+    public static Object read(JsonParser parser) throws IOException {
+        return read(parser, 0);
+    }
+
+    /**
+     * 按解析特性从 parser 读取一个完整的 JSON 值。
+     * <p>
+     * 构建的 {@link JSONObject} 总是保持插入顺序，删除字段后其余字段的顺序不变，与解析特性无关。
+     * </p>
+     *
+     * @param parser   Jackson 解析器
+     * @param features 解析特性位掩码
+     * @return {@link JSONObject}、{@link JSONArray} 或基本类型值；输入为空时返回 {@code null}
+     * @throws IOException 读取或语法错误时抛出
+     */
+    public static Object read(JsonParser parser, int features) throws IOException {
+        JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+        if (token == null) {
+            return null;
+        }
+        return new JsonStreamBuilder(features).readValue(parser, token);
+    }
+
+    /**
+     * 从 parser 读取一个 JSON 对象，parser 可位于 {@code START_OBJECT}、{@code FIELD_NAME} 或 {@code END_OBJECT}。
+     *
+     * @param parser Jackson 解析器
+     * @return {@link JSONObject}
+     * @throws IOException 读取或语法错误时抛出
+     */
+    public static JSONObject readObject(JsonParser parser) throws IOException {
+        return readObject(parser, 0);
+    }
+
+    /**
+     * 按解析特性从 parser 读取一个 JSON 对象，特性规则同 {@link #read(JsonParser, int)}。
+     *
+     * @param parser   Jackson 解析器
+     * @param features 解析特性位掩码
+     * @return {@link JSONObject}
+     * @throws IOException 读取或语法错误时抛出
+     */
+    public static JSONObject readObject(JsonParser parser, int features) throws IOException {
+        JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.FIELD_NAME || token == JsonToken.END_OBJECT) {
+            return new JsonStreamBuilder(features).buildObject(parser, token);
+        }
+        throw new JSONException("expect object, but " + describe(token));
+    }
+
+    /**
+     * 从 parser 读取一个 JSON 数组，parser 需位于 {@code START_ARRAY}。
+     *
+     * @param parser Jackson 解析器
+     * @return {@link JSONArray}
+     * @throws IOException 读取或语法错误时抛出
+     */
+    public static JSONArray readArray(JsonParser parser) throws IOException {
+        return readArray(parser, 0);
+    }
+
+    /**
+     * 按解析特性从 parser 读取一个 JSON 数组，特性规则同 {@link #read(JsonParser, int)}。
+     *
+     * @param parser   Jackson 解析器
+     * @param features 解析特性位掩码
+     * @return {@link JSONArray}
+     * @throws IOException 读取或语法错误时抛出
+     */
+    public static JSONArray readArray(JsonParser parser, int features) throws IOException {
+        JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            return new JsonStreamBuilder(features).buildArray(parser);
+        }
+        throw new JSONException("expect array, but " + describe(token));
+    }
+
+    /**
+     * 返回与 {@code JsonNodeType} 命名一致的 token 描述，用于错误信息。
+     *
+     * @param token JSON token，可为 {@code null}
+     * @return 类型描述
+     */
+    public static String describe(JsonToken token) {
+        if (token == null) {
+            return "MISSING";
+        }
+        switch (token) {
+            case START_OBJECT:
+            case FIELD_NAME:
+            case END_OBJECT:
+                return "OBJECT";
+            case START_ARRAY:
+            case END_ARRAY:
+                return "ARRAY";
+            case VALUE_STRING:
+                return "STRING";
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return "NUMBER";
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return "BOOLEAN";
+            case VALUE_NULL:
+                return "NULL";
+            default:
+                return "POJO";
+        }
+    }
+
+    /**
+     * 读取 parser 当前位置的完整 JSON 值。
+     *
+     * @param parser Jackson 解析器
+     * @param token  当前 token
+     * @return {@link JSONObject}、{@link JSONArray} 或基本类型值
+     * @throws IOException 读取或语法错误时抛出
+     */
+    Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+            case FIELD_NAME:
+            case END_OBJECT:
+                return buildObject(parser, token);
+            case START_ARRAY:
+                return buildArray(parser);
+            default:
+                return readScalar(parser, token, numbers, strings);
+        }
+    }
+
+    /**
+     * 读取 parser 当前位置的标量值（字符串、数字、布尔、{@code null} 或内嵌对象）。
+     *
+     * @param parser  Jackson 解析器
+     * @param token   当前 token
+     * @param numbers 数值读取方式，见 {@link #numberMode(int)}
+     * @param strings 字符串值规范化表，可为 {@code null}
+     * @return 标量值
+     * @throws IOException 读取失败时抛出
+     */
+    static Object readScalar(JsonParser parser, JsonToken token, int numbers, StringCanonicalizer strings)
+            throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return strings == null ? parser.getText() : strings.canonicalize(parser);
+            case VALUE_NUMBER_INT:
+                return readInteger(parser, numbers);
+            case VALUE_NUMBER_FLOAT:
+                if ((numbers & FLOAT_AS_LAZY) != 0) {
+                    return LazyNumber.read(parser);
+                }
+                if ((numbers & FLOAT_AS_DOUBLE) != 0) {
+                    return parser.getDoubleValue();
+                }
+                return normalizeDecimal(parser.getDecimalValue());
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            case VALUE_EMBEDDED_OBJECT:
+                return parser.getEmbeddedObject();
+            default:
+                throw new JSONException("unexpected token " + token);
+        }
+    }
+
+    /**
+     * 按 Jackson {@code JsonNodeFactory} 的默认规则规范化小数：去掉末尾的 0，零统一为 {@link BigDecimal#ZERO}，
+     * 与基于 {@code JsonNode} 的旧实现解析结果相同（如 {@code 2.50} 得到 {@code 2.5}，{@code 1.0} 得到 {@code 1}）。
+     *
+     * @param value 解析得到的小数
+     * @return 规范化后的小数
+     */
+    static BigDecimal normalizeDecimal(BigDecimal value) {
+        return value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+    }
+
+    private static Object readInteger(JsonParser parser, int numbers) throws IOException {
+        if ((numbers & INT_AS_BIG_INTEGER) != 0) {
+            return parser.getBigIntegerValue();
+        }
+        JsonParser.NumberType type = parser.getNumberType();
+        if ((numbers & INT_AS_LONG) != 0 && type != JsonParser.NumberType.BIG_INTEGER) {
+            return parser.getLongValue();
+        }
+        switch (type) {
+            case INT:
+                return parser.getIntValue();
+            case LONG:
+                return parser.getLongValue();
+            default:
+                return parser.getBigIntegerValue();
+        }
+    }
+
+    private JSONObject buildObject(JsonParser parser, JsonToken token) throws IOException {
+        int start = top;
+        JsonToken t = token == JsonToken.START_OBJECT ? parser.nextToken() : token;
+        for (; t == JsonToken.FIELD_NAME; t = parser.nextToken()) {
+            String name = parser.currentName();
+            Object value = readValue(parser, parser.nextToken());
+            push(name, value);
+        }
+        if (t != JsonToken.END_OBJECT) {
+            throw new JSONException("unexpected token " + t + " in object");
+        }
+        int size = top - start;
+        KeyLayout layout = linkedHashMap || size == 0 ? null : layoutFor(start, size);
+        JSONObject object;
+        if (layout != null) {
+            CompactMap map = new CompactMap(0, true);
+            map.assign(layout, values, start);
+            object = JSONObject.wrapInnerMap(map);
+            if ((numbers & FLOAT_AS_LAZY) != 0) {
+                registerLazyNumber(object, start);
+            }
+        } else {
+            object = new JSONObject(linkedHashMap ? capacityFor(size) : size);
+            for (int i = start; i < top; i++) {
+                object.put(names[i], values[i]);
+            }
+        }
+        pop(start);
+        return object;
+    }
+
+    /**
+     * 通过 {@link JSONObject#put} 重新写入第一个 {@link LazyNumber}，使对象知道需要在读取前解码
+     */
+    private void registerLazyNumber(JSONObject object, int start) {
+        for (int i = start; i < top; i++) {
+            if (values[i] instanceof LazyNumber) {
+                object.put(names[i], values[i]);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 返回与 {@code names[start, start + size)} 相同的缓存布局，未命中时新建并放入缓存。
+     */
+    private KeyLayout layoutFor(int start, int size) {
+        if (layouts == null) {
+            layouts = new KeyLayout[LAYOUT_CACHE_SIZE];
+        }
+        int h = size;
+        for (int i = start; i < start + size; i++) {
+            h = 31 * h + names[i].hashCode();
+        }
+        int slot = (h ^ (h >>> 16)) & (LAYOUT_CACHE_SIZE - 1);
+        KeyLayout layout = layouts[slot];
+        if (layout == null || !layout.matches(names, start, size)) {
+            // 含重复键的对象返回 null，按逐个 put 的方式构建，后出现的值覆盖先出现的值
+            layout = KeyLayout.of(names, start, size);
+            if (layout != null) {
+                layouts[slot] = layout;
+            }
+        }
+        return layout;
+    }
+
+    private JSONArray buildArray(JsonParser parser) throws IOException {
+        int start = top;
+        JsonToken t;
+        while ((t = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (t == null) {
+                throw new JSONException("unexpected end of input in array");
+            }
+            push(null, readValue(parser, t));
+        }
+        ColumnarList columns = columnar ? ColumnarList.of(values, start, top, true) : null;
+        JSONArray array;
+        if (columns != null) {
+            array = JSONArray.wrapInnerList(columns);
+        } else {
+            array = new JSONArray(top - start);
+            for (int i = start; i < top; i++) {
+                array.add(values[i]);
+            }
+        }
+        pop(start);
+        return array;
+    }
+
+    private void push(String name, Object value) {
+        if (top == values.length) {
+            int newLength = values.length << 1;
+            names = Arrays.copyOf(names, newLength);
+            values = Arrays.copyOf(values, newLength);
+        }
+        names[top] = name;
+        values[top] = value;
+        top++;
+    }
+
+    private void pop(int start) {
+        Arrays.fill(names, start, top, null);
+        Arrays.fill(values, start, top, null);
+        top = start;
+    }
+
+    private static int capacityFor(int size) {
+        // LinkedHashMap 负载因子为 0.75，按确切大小换算初始容量，保证构建过程中不扩容
+        return size < 3 ? size + 1 : (int) (size / 0.75F) + 1;
+    }
+}
@@ -0,0 +1,42 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * 基于 token 流的 JSON 校验器，只前进和跳过 token，不构建任何树结构。
+ * <p>
+ * 根值类型由第一个 token 判断，类型不符时立即返回，无需扫描剩余内容；
+ * 根值之后只允许出现空白，存在多余内容视为非法。
+ * </p>
+ */
+public final class JsonValidator {
+
+    private JsonValidator() {
+    }
+
+    /**
+     * 校验 parser 中的内容是否为单个合法 JSON 值，调用方负责关闭 parser。
+     *
+     * @param parser       尚未读取任何 token 的解析器
+     * @param expectedRoot 期望的根 token（{@link JsonToken#START_OBJECT}/{@link JsonToken#START_ARRAY}），
+     *                     为 {@code null} 时接受任意类型
+     * @return 合法返回 {@code true}
+     * @throws IOException 内容非法或读取失败时抛出
+     */
+    public static boolean validate(JsonParser parser, JsonToken expectedRoot) throws IOException {
+        JsonToken first = parser.nextToken();
+        if (first == null) {
+            return false;
+        }
+        if (expectedRoot != null && first != expectedRoot) {
+            return false;
+        }
+        if (first.isStructStart()) {
+            parser.skipChildren();
+        }
+        return parser.nextToken() == null;
+    }
+}
@@ -0,0 +1,146 @@
+package com.liyu.fastjson.support;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 多个 {@link CompactMap} 共享的不可变键布局（键数组及其下标表）。
+ * <p>
+ * 解析同构记录数组（如订单明细）时，键集合与顺序相同的对象共享同一个布局，每个对象只保存自己的值数组，
+ * 按键查找即为在共享下标表中定位。对象追加新键时迁移到由当前布局派生的子布局，
+ * 删除键等其他结构修改则复制出私有的键数组，布局本身永不修改，因此可以在线程间共享。
+ * </p>
+ */
+public final class KeyLayout {
+
+    /**
+     * 每个布局缓存的派生子布局上限，超过后追加新键的对象改用私有键数组
+     */
+    private static final int MAX_TRANSITIONS = 4;
+
+    private static final KeyLayout[] NO_TRANSITIONS = {};
+
+    final String[] keys;
+
+    /**
+     * 与 {@link CompactMap} 格式相同的下标表；键数较少时为 {@code null}
+     */
+    final int[] index;
+
+    private volatile KeyLayout[] transitions = NO_TRANSITIONS;
+
+    private KeyLayout(String[] keys) {
+        this.keys = keys;
+        this.index = keys.length > CompactMap.LINEAR_SCAN_LIMIT ? CompactMap.buildIndex(keys, keys.length) : null;
+    }
+
+    /**
+     * 以 {@code names[offset, offset + size)} 的副本创建布局。
+     *
+     * @param names  键数组
+     * @param offset 起始下标
+     * @param size   键数
+     * @return 新布局；存在重复键时返回 {@code null}
+     */
+    public static KeyLayout of(String[] names, int offset, int size) {
+        KeyLayout layout = new KeyLayout(Arrays.copyOfRange(names, offset, offset + size));
+        return layout.hasDuplicateKeys() ? null : layout;
+    }
+
+    /**
+     * 返回键数。
+     *
+     * @return 键数
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * 返回键的下标。
+     *
+     * @param key 键
+     * @return 下标；不存在时返回 {@code -1}
+     */
+    int indexOf(Object key) {
+        if (index != null) {
+            return CompactMap.indexOf(keys, index, key);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (Objects.equals(keys[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 判断布局的键序列是否与 {@code names[offset, offset + size)} 相同。
+     *
+     * @param names  键数组
+     * @param offset 起始下标
+     * @param size   键数
+     * @return 相同返回 {@code true}
+     */
+    public boolean matches(String[] names, int offset, int size) {
+        if (keys.length != size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            String key = keys[i];
+            String name = names[offset + i];
+            // Jackson 默认会规范化字段名，绝大多数情况下引用相同
+            if (key != name && (key == null || !key.equals(name))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasDuplicateKeys() {
+        if (index != null) {
+            // 下标表中每个键应恰好定位到自身
+            for (int i = 0; i < keys.length; i++) {
+                if (CompactMap.indexOf(keys, index, keys[i]) != i) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (int i = 1; i < keys.length; i++) {
+            for (int j = 0; j < i; j++) {
+                if (keys[i].equals(keys[j])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 返回在末尾追加 {@code key} 后的布局，相同追加会命中缓存的同一子布局。
+     *
+     * @param key 新键，调用方需保证不在当前布局中
+     * @return 子布局；缓存已满时返回 {@code null}
+     */
+    KeyLayout transition(String key) {
+        KeyLayout[] current = transitions;
+        for (KeyLayout child : current) {
+            String last = child.keys[keys.length];
+            if (last == key || (last != null && last.equals(key))) {
+                return child;
+            }
+        }
+        if (current.length >= MAX_TRANSITIONS) {
+            return null;
+        }
+        String[] childKeys = Arrays.copyOf(keys, keys.length + 1);
+        childKeys[keys.length] = key;
+        KeyLayout child = new KeyLayout(childKeys);
+        // 并发追加时可能各自创建子布局，只会少命中一次缓存，不影响正确性
+        KeyLayout[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = child;
+        transitions = updated;
+        return child;
+    }
+}
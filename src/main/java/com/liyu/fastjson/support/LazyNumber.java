@@ -0,0 +1,186 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * 延迟解码的小数占位值。
+ * <p>
+ * 解析时不构建 {@link BigDecimal}：不超过 {@value #MAX_COMPACT_DIGITS} 位有效数字、标度不超过
+ * {@value #MAX_COMPACT_SCALE} 且不含指数的小数保存为非标度 {@code long} 加标度，其余保存原始文本。
+ * {@link #intValue()}/{@link #longValue()}/{@link #doubleValue()} 等与对应 {@link BigDecimal} 的结果一致，
+ * 只有 {@link #decimalValue()} 才会创建 {@code BigDecimal}。
+ * </p>
+ * <p>
+ * 占位值只会出现在 {@link com.liyu.fastjson.JSONObject} 内部存储中，读取方法返回前会将其替换为
+ * {@link BigDecimal}；{@link CompactList} 直接以基本类型保存。实例不可变。
+ * </p>
+ */
+public final class LazyNumber extends Number {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 非标度值不超过 2^52，转换为 double 时可一次除法正确舍入
+     */
+    static final int MAX_COMPACT_DIGITS = 15;
+
+    /**
+     * 10 的幂在 double 中可精确表示的最大指数
+     */
+    static final int MAX_COMPACT_SCALE = 22;
+
+    private static final double[] DOUBLE_POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final float[] FLOAT_POW10 = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    private final long unscaled;
+    private final int scale;
+
+    /**
+     * 原始文本，紧凑形式时为 {@code null}
+     */
+    private final String text;
+
+    private LazyNumber(long unscaled, int scale, String text) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+        this.text = text;
+    }
+
+    /**
+     * 读取 parser 当前的 {@code VALUE_NUMBER_FLOAT} token，紧凑形式时不分配字符串。
+     *
+     * @param parser Jackson 解析器
+     * @return 占位值
+     * @throws IOException 读取失败时抛出
+     */
+    public static LazyNumber read(JsonParser parser) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int end = offset + parser.getTextLength();
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                if (unscaled != 0 || c != '0') {
+                    if (++digits > MAX_COMPACT_DIGITS) {
+                        break;
+                    }
+                    unscaled = unscaled * 10 + (c - '0');
+                }
+                if (fraction) {
+                    scale++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        // 与 JsonStreamBuilder#normalizeDecimal 一致地去掉末尾的 0；整数部分末尾的 0 需要负标度，改用文本形式
+        while (scale > 0 && unscaled % 10 == 0) {
+            unscaled /= 10;
+            scale--;
+        }
+        if (i < end || scale > MAX_COMPACT_SCALE || scale == 0 && unscaled != 0 && unscaled % 10 == 0) {
+            return new LazyNumber(0, 0, new String(chars, offset, end - offset));
+        }
+        return new LazyNumber(negative ? -unscaled : unscaled, scale, null);
+    }
+
+    /**
+     * 是否为非标度值加标度的紧凑形式。
+     *
+     * @return 紧凑形式返回 {@code true}
+     */
+    boolean isCompact() {
+        return text == null;
+    }
+
+    /**
+     * 返回紧凑形式的标度。
+     *
+     * @return 标度
+     */
+    int scale() {
+        return scale;
+    }
+
+    /**
+     * 解码为 {@link BigDecimal}。
+     *
+     * @return 与非惰性模式解析结果相等的 BigDecimal，末尾的 0 已去掉
+     */
+    public BigDecimal decimalValue() {
+        return text == null ? BigDecimal.valueOf(unscaled, scale)
+                : JsonStreamBuilder.normalizeDecimal(new BigDecimal(text));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int intValue() {
+        return text == null ? (int) longValue() : decimalValue().intValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long longValue() {
+        if (text != null) {
+            return decimalValue().longValue();
+        }
+        // 非标度值小于 10^15，标度超过 15 时整数部分必为 0
+        return scale > MAX_COMPACT_DIGITS ? 0L : unscaled / (long) DOUBLE_POW10[scale];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float floatValue() {
+        // 与 BigDecimal.floatValue() 的快速路径相同，其余情况按文本正确舍入
+        if (text == null && Math.abs(unscaled) < 1L << 22 && scale < FLOAT_POW10.length) {
+            return (float) unscaled / FLOAT_POW10[scale];
+        }
+        return Float.parseFloat(toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double doubleValue() {
+        if (text == null) {
+            return (double) unscaled / DOUBLE_POW10[scale];
+        }
+        return Double.parseDouble(text);
+    }
+
+    /**
+     * 返回与 {@link #decimalValue()} 相同的文本形式。
+     */
+    @Override
+    public String toString() {
+        return decimalValue().toString();
+    }
+}
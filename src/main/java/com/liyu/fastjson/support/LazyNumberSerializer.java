@@ -0,0 +1,27 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * {@link LazyNumber} 的 Jackson 序列化器：解码为 {@link java.math.BigDecimal} 后按常规方式序列化。
+ */
+final class LazyNumberSerializer extends StdSerializer<LazyNumber> {
+
+    private static final long serialVersionUID = 1L;
+
+    LazyNumberSerializer() {
+        super(LazyNumber.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serialize(LazyNumber value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        provider.defaultSerializeValue(value.decimalValue(), gen);
+    }
+}
@@ -0,0 +1,260 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.liyu.fastjson.JSONException;
+import com.liyu.fastjson.JSONObject;
+import com.liyu.fastjson.parser.Feature;
+import com.liyu.fastjson.parser.ParserConfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 惰性解析的嵌套对象/数组占位值。
+ * <p>
+ * 只记录子树在原始输入（{@link String} 或 UTF-8 {@code byte[]}）中的区间，首次调用 {@link #getValue()}
+ * 时才解析；对象子树解析后其嵌套值仍是惰性的，数组子树则一次解析完整。
+ * 未被解析过的子树在序列化时可通过 {@link #writeRaw(JsonGenerator)} 原样写出。
+ * </p>
+ * <p>
+ * 占位值只会出现在 {@link JSONObject} 内部存储中，{@code JSONObject} 的读取方法会在返回前将其替换为解析结果。
+ * 实例与 {@code JSONObject} 一样非线程安全。
+ * </p>
+ */
+public final class LazyValue {
+
+    private final ObjectReader reader;
+    private final Object source;
+    private final int start;
+    private final int end;
+    private final boolean object;
+    private final int features;
+    private final boolean hasNullMember;
+
+    private Object value;
+
+    private LazyValue(ObjectReader reader, Object source, int start, int end,
+                      boolean object, int features, boolean hasNullMember) {
+        this.reader = reader;
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.object = object;
+        this.features = features;
+        this.hasNullMember = hasNullMember;
+    }
+
+    /**
+     * 惰性读取 JSON 字符串：根为对象时其嵌套对象/数组以 {@link LazyValue} 占位，否则与普通解析相同。
+     *
+     * @param text     JSON 字符串
+     * @param features 解析特性位掩码
+     * @return {@link JSONObject}、{@link com.liyu.fastjson.JSONArray} 或基本类型；输入为空时返回 {@code null}
+     * @throws IOException 读取或语法错误时抛出
+     */
+    public static Object read(String text, int features) throws IOException {
+        ObjectReader reader = JacksonSupport.reader(features);
+        try (JsonParser parser = reader.createParser(text)) {
+            return read(parser, reader, text, 0, features);
+        }
+    }
+
+    /**
+     * 惰性读取 UTF-8 字节数组中的 JSON 内容，规则同 {@link #read(String, int)}。
+     * <p>占位值直接引用 {@code bytes}，调用方之后不应再修改该数组。
+     * 占位值按 UTF-8 字节区间记录，输入带 BOM 或为 UTF-16/32 编码时不使用占位值，按普通方式完整解析。</p>
+     *
+     * @param bytes    JSON 字节数组
+     * @param offset   起始下标
+     * @param length   字节长度
+     * @param features 解析特性位掩码
+     * @return {@link JSONObject}、{@link com.liyu.fastjson.JSONArray} 或基本类型；输入为空时返回 {@code null}
+     * @throws IOException 读取或语法错误时抛出
+     */
+    public static Object read(byte[] bytes, int offset, int length, int features) throws IOException {
+        ObjectReader reader = JacksonSupport.reader(features);
+        try (JsonParser parser = reader.createParser(bytes, offset, length)) {
+            if (!isPlainUtf8(bytes, offset, length)) {
+                return JsonStreamBuilder.read(parser, features);
+            }
+            return read(parser, reader, bytes, offset, features);
+        }
+    }
+
+    /**
+     * 是否为不带 BOM 的 UTF-8 输入：与 Jackson 的编码识别一致，JSON 文本的前 4 个字节中出现 0 即为 UTF-16/32
+     */
+    private static boolean isPlainUtf8(byte[] bytes, int offset, int length) {
+        int first = bytes[offset] & 0xFF;
+        if (first == 0xEF || first == 0xFE || first == 0xFF) {
+            return false;
+        }
+        for (int i = offset, end = offset + Math.min(4, length); i < end; i++) {
+            if (bytes[i] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 惰性读取 JSON 对象字符串，嵌套对象/数组以 {@link LazyValue} 占位。
+     *
+     * @param text     JSON 对象字符串
+     * @param features 解析特性位掩码
+     * @return {@link JSONObject}
+     * @throws IOException 读取或语法错误时抛出
+     * @throws JSONException 内容不是 JSON 对象时抛出
+     */
+    public static JSONObject readObject(String text, int features) throws IOException {
+        ObjectReader reader = JacksonSupport.reader(features);
+        try (JsonParser parser = reader.createParser(text)) {
+            return readObject(parser, reader, text, 0, features);
+        }
+    }
+
+    private static boolean isStandard(int features) {
+        return (features & (Feature.AllowComment.mask | Feature.AllowUnQuotedFieldNames.mask
+                | Feature.AllowSingleQuotes.mask | Feature.AllowArbitraryCommas.mask)) == 0;
+    }
+
+    private static Object read(JsonParser parser, ObjectReader reader, Object source, int base,
+                               int features) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            return readObject(parser, reader, source, base, features);
+        }
+        return JsonStreamBuilder.read(parser, features);
+    }
+
+    private static JSONObject readObject(JsonParser parser, ObjectReader reader, Object source, int base,
+                                         int features) throws IOException {
+        JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new JSONException("expect object, but " + JsonStreamBuilder.describe(token));
+        }
+        JSONObject result = new JSONObject();
+        int numbers = JsonStreamBuilder.numberMode(features);
+        StringCanonicalizer strings = ParserConfig.getGlobalInstance().getStringCanonicalizer();
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                result.put(name, skip(parser, reader, source, base, features, token == JsonToken.START_OBJECT));
+            } else {
+                result.put(name, JsonStreamBuilder.readScalar(parser, token, numbers, strings));
+            }
+        }
+        if (token != JsonToken.END_OBJECT) {
+            throw new JSONException("unexpected token " + token + " in object");
+        }
+        return result;
+    }
+
+    private static LazyValue skip(JsonParser parser, ObjectReader reader, Object source, int base,
+                                  int features, boolean object) throws IOException {
+        int from = base + offset(parser.currentTokenLocation(), source);
+        boolean hasNullMember = false;
+        int depth = 1;
+        while (depth > 0) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new JSONException("unexpected end of input");
+            }
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            } else if (token == JsonToken.VALUE_NULL && parser.getParsingContext().inObject()) {
+                hasNullMember = true;
+            }
+        }
+        int to = base + offset(parser.currentLocation(), source);
+        return new LazyValue(reader, source, from, to, object, features, hasNullMember);
+    }
+
+    private static int offset(JsonLocation location, Object source) {
+        return (int) (source instanceof String ? location.getCharOffset() : location.getByteOffset());
+    }
+
+    /**
+     * 返回解析后的值，首次调用时解析并缓存。
+     *
+     * @return {@link JSONObject} 或 {@link com.liyu.fastjson.JSONArray}
+     * @throws JSONException 解析失败时抛出
+     */
+    public Object getValue() {
+        Object result = value;
+        if (result == null) {
+            result = parse();
+            value = result;
+        }
+        return result;
+    }
+
+    private Object parse() {
+        try {
+            if (source instanceof String) {
+                String text = ((String) source).substring(start, end);
+                try (JsonParser parser = reader.createParser(text)) {
+                    return object ? readObject(parser, reader, text, 0, features)
+                            : JsonStreamBuilder.readArray(parser, features);
+                }
+            }
+            byte[] bytes = (byte[]) source;
+            try (JsonParser parser = reader.createParser(bytes, start, end - start)) {
+                return object ? readObject(parser, reader, bytes, start, features)
+                        : JsonStreamBuilder.readArray(parser, features);
+            }
+        } catch (IOException e) {
+            throw new JSONException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 判断当前序列化上下文能否原样写出原始文本。
+     * <p>
+     * 需同时满足：子树尚未解析、原始文本为标准 JSON、未启用缩进与 Map 键排序、字段名使用双引号、
+     * 目标不是 {@link TokenBuffer}，并且当子树含有 {@code null} 成员时当前配置会输出 {@code null} 值。
+     * </p>
+     *
+     * @param gen      JSON 生成器
+     * @param provider 序列化上下文
+     * @return 可以原样写出返回 {@code true}
+     */
+    @SuppressWarnings("deprecation")
+    public boolean canWriteRaw(JsonGenerator gen, SerializerProvider provider) {
+        if (value != null || !isStandard(features) || gen instanceof TokenBuffer || gen.getPrettyPrinter() != null
+                || provider.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                || !gen.isEnabled(JsonGenerator.Feature.QUOTE_FIELD_NAMES)) {
+            return false;
+        }
+        if (!hasNullMember) {
+            return true;
+        }
+        JsonInclude.Include content = provider.getConfig().getDefaultPropertyInclusion().getContentInclusion();
+        return content == JsonInclude.Include.ALWAYS || content == JsonInclude.Include.USE_DEFAULTS;
+    }
+
+    /**
+     * 将原始文本作为一个完整 JSON 值写出。
+     *
+     * @param gen JSON 生成器
+     * @throws IOException 写出失败时抛出
+     */
+    public void writeRaw(JsonGenerator gen) throws IOException {
+        if (source instanceof String) {
+            gen.writeRawValue((String) source, start, end - start);
+        } else {
+            gen.writeRawValue(new String((byte[]) source, start, end - start, StandardCharsets.UTF_8));
+        }
+    }
+}
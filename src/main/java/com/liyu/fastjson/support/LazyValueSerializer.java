@@ -0,0 +1,31 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * {@link LazyValue} 的 Jackson 序列化器：条件允许时原样写出原始文本，否则解析后按常规方式序列化。
+ */
+final class LazyValueSerializer extends StdSerializer<LazyValue> {
+
+    private static final long serialVersionUID = 1L;
+
+    LazyValueSerializer() {
+        super(LazyValue.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void serialize(LazyValue value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (value.canWriteRaw(gen, provider)) {
+            value.writeRaw(gen);
+        } else {
+            provider.defaultSerializeValue(value.getValue(), gen);
+        }
+    }
+}
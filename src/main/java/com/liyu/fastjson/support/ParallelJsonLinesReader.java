@@ -0,0 +1,351 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.liyu.fastjson.JSONException;
+import com.liyu.fastjson.parser.Feature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 在 {@link ForkJoinPool} 上并行解析 JSON Lines（NDJSON）输入。
+ * <p>
+ * 调用线程顺序读取输入并切分为按行对齐的数据块（默认约 {@link #DEFAULT_CHUNK_SIZE} 字节，超长的行整行放入一个块），
+ * 每个块作为一个任务在池中解析，所有任务共享同一个已绑定目标类型的 {@link ObjectReader}，与 {@code JSON.parseObject}
+ * 使用同一份缓存；元素类型为 {@code JSONObject}/{@code JSONArray}/{@link Object} 时每个任务使用自己的构建器。
+ * 同时在途（已读入、尚未交付）的块不超过 {@link #setMaxInFlight(int)}，内存占用约为块大小乘以在途块数。
+ * </p>
+ * <p>
+ * 有序模式下记录按输入顺序在调用线程中交给 consumer；无序模式下各块解析完成后立即在工作线程中交付，
+ * 同一块内的记录保持顺序，consumer 需线程安全。{@link JsonLinesReader.ErrorHandler} 同样可能在工作线程中被调用。
+ * </p>
+ * <p>实例配置完成后可重复使用，也可在多个线程间共享。</p>
+ *
+ * <pre>{@code
+ * ParallelJsonLinesReader<Event> reader = new ParallelJsonLinesReader<>(Event.class);
+ * reader.setOrdered(false);
+ * long count = reader.read(in, event -> sink.accept(event));
+ * }</pre>
+ *
+ * @param <T> 元素类型
+ */
+public final class ParallelJsonLinesReader<T> {
+
+    /**
+     * 默认数据块大小
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final Class<T> clazz;
+    private final int features;
+    private final ObjectReader reader;
+
+    private volatile boolean ordered = true;
+    private volatile int chunkSize = DEFAULT_CHUNK_SIZE;
+    private volatile int maxInFlight;
+    private volatile ForkJoinPool pool;
+    private volatile JsonLinesReader.ErrorHandler errorHandler;
+
+    /**
+     * 创建读取器，默认有序交付、使用公共池。
+     *
+     * @param clazz    元素类型
+     * @param features 解析特性
+     */
+    public ParallelJsonLinesReader(Class<T> clazz, Feature... features) {
+        this.clazz = clazz;
+        this.features = Feature.of(features);
+        this.reader = JsonLinesReader.readerFor(clazz, JacksonSupport.reader(this.features));
+    }
+
+    /**
+     * 设置是否按输入顺序交付，默认 {@code true}。
+     *
+     * @param ordered 是否有序
+     */
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    /**
+     * 设置数据块大小。
+     *
+     * @param chunkSize 字节数，必须大于 0
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive, value : " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 设置同时在途的最大数据块数，默认（{@code 0}）为池并行度的 2 倍。
+     *
+     * @param maxInFlight 最大在途块数，{@code 0} 表示默认
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 0) {
+            throw new IllegalArgumentException("maxInFlight must not be negative, value : " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * 设置执行解析任务的池，{@code null} 表示 {@link ForkJoinPool#commonPool()}。
+     *
+     * @param pool 线程池
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * 设置无法解析的行的处理器，{@code null}（默认）表示抛出异常并终止读取。
+     *
+     * @param errorHandler 处理器，需线程安全
+     */
+    public void setErrorHandler(JsonLinesReader.ErrorHandler errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * 读取全部输入并把每条记录交给 {@code consumer}，返回前关闭输入流。
+     * <p>
+     * 任一块解析失败或 consumer 抛出异常时，不再读取新的块，等待在途的块结束后抛出第一个异常。
+     * </p>
+     *
+     * @param input    输入流
+     * @param consumer 记录消费者
+     * @return 交付的记录数
+     */
+    public long read(InputStream input, Consumer<? super T> consumer) {
+        ForkJoinPool executor = pool != null ? pool : ForkJoinPool.commonPool();
+        int limit = maxInFlight > 0 ? maxInFlight : Math.max(2, executor.getParallelism() << 1);
+        try {
+            return ordered
+                    ? readOrdered(input, consumer, executor, limit)
+                    : readUnordered(input, consumer, executor, limit);
+        } finally {
+            try {
+                input.close();
+            } catch (IOException e) {
+                // 读取结果已确定，忽略关闭失败
+            }
+        }
+    }
+
+    private long readOrdered(InputStream input, Consumer<? super T> consumer, ForkJoinPool executor, int limit) {
+        ArrayDeque<ForkJoinTask<List<T>>> inFlight = new ArrayDeque<>(limit);
+        ChunkSplitter splitter = new ChunkSplitter(input, chunkSize);
+        AtomicBoolean aborted = new AtomicBoolean();
+        long count = 0;
+        try {
+            Chunk chunk;
+            while ((chunk = splitter.next()) != null) {
+                if (inFlight.size() == limit) {
+                    count += deliver(inFlight.poll().join(), consumer);
+                }
+                Chunk current = chunk;
+                inFlight.add(executor.submit(() -> aborted.get() ? Collections.<T>emptyList() : collect(current)));
+            }
+            while (!inFlight.isEmpty()) {
+                count += deliver(inFlight.poll().join(), consumer);
+            }
+            return count;
+        } catch (RuntimeException e) {
+            // 尚未开始的块直接跳过，等待正在解析的块结束后再抛出，保证返回后不再读取输入
+            aborted.set(true);
+            for (ForkJoinTask<List<T>> task : inFlight) {
+                task.quietlyJoin();
+            }
+            throw e;
+        }
+    }
+
+    private long readUnordered(InputStream input, Consumer<? super T> consumer, ForkJoinPool executor, int limit) {
+        Semaphore permits = new Semaphore(limit);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        AtomicLong count = new AtomicLong();
+        ChunkSplitter splitter = new ChunkSplitter(input, chunkSize);
+        try {
+            Chunk chunk;
+            while (failure.get() == null && (chunk = nextChunk(splitter, permits)) != null) {
+                Chunk current = chunk;
+                try {
+                    executor.execute(() -> {
+                        try {
+                            if (failure.get() == null) {
+                                count.addAndGet(parse(current, consumer));
+                            }
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // 提交失败（如线程池已关闭）时任务不会运行，由这里归还名额
+                    permits.release();
+                    throw e;
+                }
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            // 等待所有在途的块结束
+            permits.acquireUninterruptibly(limit);
+        }
+        RuntimeException e = failure.get();
+        if (e != null) {
+            throw e;
+        }
+        return count.get();
+    }
+
+    /**
+     * 取得一个在途名额后读取下一块；没有更多数据时归还名额
+     */
+    private static Chunk nextChunk(ChunkSplitter splitter, Semaphore permits) {
+        permits.acquireUninterruptibly();
+        try {
+            Chunk chunk = splitter.next();
+            if (chunk == null) {
+                permits.release();
+            }
+            return chunk;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private List<T> collect(Chunk chunk) {
+        List<T> records = new ArrayList<>();
+        parse(chunk, records::add);
+        return records;
+    }
+
+    private long parse(Chunk chunk, Consumer<? super T> consumer) {
+        JsonLinesReader<T> lines = new JsonLinesReader<>(chunk.data, chunk.length, chunk.firstLine, clazz, reader,
+                features, errorHandler);
+        long count = 0;
+        while (lines.hasNext()) {
+            consumer.accept(lines.next());
+            count++;
+        }
+        return count;
+    }
+
+    private static <T> long deliver(List<T> records, Consumer<? super T> consumer) {
+        for (T record : records) {
+            consumer.accept(record);
+        }
+        return records.size();
+    }
+
+    /**
+     * 按行对齐的数据块
+     */
+    private static final class Chunk {
+
+        final byte[] data;
+        final int length;
+        final long firstLine;
+
+        Chunk(byte[] data, int length, long firstLine) {
+            this.data = data;
+            this.length = length;
+            this.firstLine = firstLine;
+        }
+    }
+
+    /**
+     * 顺序读取输入并切分为按行对齐的数据块：每块在最后一个换行符之后截断，剩余部分移入下一块
+     */
+    private static final class ChunkSplitter {
+
+        private final InputStream input;
+        private final int chunkSize;
+
+        private byte[] carry = new byte[0];
+        private int carryLength;
+        private long nextLine = 1;
+        private boolean eof;
+
+        ChunkSplitter(InputStream input, int chunkSize) {
+            this.input = input;
+            this.chunkSize = chunkSize;
+        }
+
+        Chunk next() {
+            if (eof && carryLength == 0) {
+                return null;
+            }
+            byte[] data = new byte[Math.max(chunkSize, carryLength + 1)];
+            System.arraycopy(carry, 0, data, 0, carryLength);
+            int length = carryLength;
+            try {
+                while (true) {
+                    while (!eof && length < data.length) {
+                        int n = input.read(data, length, data.length - length);
+                        if (n < 0) {
+                            eof = true;
+                        } else {
+                            length += n;
+                        }
+                    }
+                    if (eof) {
+                        carryLength = 0;
+                        return length == 0 ? null : chunk(data, length);
+                    }
+                    int end = lastNewline(data, length);
+                    if (end >= 0) {
+                        carryLength = length - end - 1;
+                        if (carry.length < carryLength) {
+                            carry = new byte[Math.max(carryLength, chunkSize)];
+                        }
+                        System.arraycopy(data, end + 1, carry, 0, carryLength);
+                        return chunk(data, end + 1);
+                    }
+                    // 单行超过块大小，扩大当前块直到读到该行结尾
+                    data = Arrays.copyOf(data, data.length << 1);
+                }
+            } catch (IOException e) {
+                throw new JSONException(e.getMessage(), e);
+            }
+        }
+
+        private Chunk chunk(byte[] data, int length) {
+            // 统计行数以便错误信息与处理器得到全局行号
+            Chunk chunk = new Chunk(data, length, nextLine);
+            for (int i = 0; i < length; i++) {
+                if (data[i] == '\n') {
+                    nextLine++;
+                }
+            }
+            return chunk;
+        }
+
+        private static int lastNewline(byte[] data, int length) {
+            for (int i = length - 1; i >= 0; i--) {
+                if (data[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
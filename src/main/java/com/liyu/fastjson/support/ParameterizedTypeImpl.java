@@ -0,0 +1,91 @@
+package com.liyu.fastjson.support;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@link ParameterizedType} 的简单实现，用于在运行时拼装泛型类型。
+ * <p>
+ * {@code equals}/{@code hashCode} 与 JDK 反射返回的实现保持一致，二者可互相作为缓存键命中。
+ * </p>
+ */
+public final class ParameterizedTypeImpl implements ParameterizedType {
+
+    private final Type[] actualTypeArguments;
+    private final Type ownerType;
+    private final Type rawType;
+
+    /**
+     * 创建参数化类型。
+     *
+     * @param actualTypeArguments 实际类型参数
+     * @param ownerType           外部类型，可为 {@code null}
+     * @param rawType             原始类型
+     */
+    public ParameterizedTypeImpl(Type[] actualTypeArguments, Type ownerType, Type rawType) {
+        this.actualTypeArguments = actualTypeArguments.clone();
+        this.ownerType = ownerType;
+        this.rawType = rawType;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Type[] getActualTypeArguments() {
+        return actualTypeArguments.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Type getOwnerType() {
+        return ownerType;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Type getRawType() {
+        return rawType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ParameterizedType)) {
+            return false;
+        }
+        ParameterizedType that = (ParameterizedType) o;
+        return Objects.equals(ownerType, that.getOwnerType())
+                && Objects.equals(rawType, that.getRawType())
+                && Arrays.equals(actualTypeArguments, that.getActualTypeArguments());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(actualTypeArguments) ^ Objects.hashCode(ownerType) ^ Objects.hashCode(rawType);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(rawType.getTypeName());
+        if (actualTypeArguments.length > 0) {
+            sb.append('<');
+            for (int i = 0; i < actualTypeArguments.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(actualTypeArguments[i].getTypeName());
+            }
+            sb.append('>');
+        }
+        return sb.toString();
+    }
+}
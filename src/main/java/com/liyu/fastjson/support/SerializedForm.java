@@ -0,0 +1,70 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.liyu.fastjson.JSONException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntSupplier;
+
+/**
+ * 冻结容器（{@code JSONObject.freeze()}/{@code JSONArray.freeze()} 的结果）缓存的序列化结果与哈希值。
+ * <p>
+ * 各项在首次使用时计算；多个线程同时首次访问时可能重复计算，但结果相同，之后都读取同一份缓存。
+ * 只缓存不带任何序列化特性时的结果。
+ * </p>
+ */
+public final class SerializedForm {
+
+    private volatile byte[] bytes;
+    private volatile String text;
+    private volatile int hash;
+    private volatile boolean hashed;
+
+    /**
+     * 返回缓存的 UTF-8 JSON 字节，调用方不得修改返回的数组。
+     *
+     * @param owner 所属的冻结容器
+     * @return JSON 字节
+     */
+    public byte[] bytes(Object owner) {
+        byte[] result = bytes;
+        if (result == null) {
+            try {
+                result = JacksonSupport.writer(0).writeValueAsBytes(owner);
+            } catch (JsonProcessingException e) {
+                throw new JSONException(e.getMessage(), e);
+            }
+            bytes = result;
+        }
+        return result;
+    }
+
+    /**
+     * 返回缓存的 JSON 字符串。
+     *
+     * @param owner 所属的冻结容器
+     * @return JSON 字符串
+     */
+    public String text(Object owner) {
+        String result = text;
+        if (result == null) {
+            result = new String(bytes(owner), StandardCharsets.UTF_8);
+            text = result;
+        }
+        return result;
+    }
+
+    /**
+     * 返回缓存的哈希值。
+     *
+     * @param computer 首次调用时计算哈希值
+     * @return 哈希值
+     */
+    public int hash(IntSupplier computer) {
+        if (!hashed) {
+            hash = computer.getAsInt();
+            hashed = true;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,198 @@
+package com.liyu.fastjson.support;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 解析字符串值的规范化表，使重复出现的短字符串值共享同一个 {@link String} 实例。
+ * <p>
+ * 表按分段加锁，每段是按哈希直接映射的定长槽数组，冲突时新值替换旧值，因此总条目数不超过表大小，
+ * 不会随输入中不同值的数量增长。查找直接比较 parser 的字符缓冲区，命中时不创建新字符串。
+ * 超过最大长度的值不进入表，也不计入统计。
+ * </p>
+ * <p>
+ * 适合 {@code "channel":"web"} 这类基数较低、大量重复的值；可通过 {@link #stats()} 观察命中率，
+ * 命中率很低时说明该数据不适合开启。实例线程安全，可在多个解析线程间共享。
+ * </p>
+ *
+ * @see com.liyu.fastjson.parser.ParserConfig#setStringCanonicalizer(StringCanonicalizer)
+ */
+public final class StringCanonicalizer {
+
+    /**
+     * 默认最大字符串长度
+     */
+    public static final int DEFAULT_MAX_LENGTH = 32;
+
+    /**
+     * 默认表大小
+     */
+    public static final int DEFAULT_TABLE_SIZE = 4096;
+
+    private static final int MAX_STRIPES = 16;
+
+    private static final int MAX_TABLE_SIZE = 1 << 20;
+
+    private final int maxLength;
+    private final Stripe[] stripes;
+    private final int stripeBits;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 以默认最大长度与表大小创建。
+     */
+    public StringCanonicalizer() {
+        this(DEFAULT_MAX_LENGTH, DEFAULT_TABLE_SIZE);
+    }
+
+    /**
+     * 创建规范化表。
+     *
+     * @param maxLength 参与规范化的最大字符串长度
+     * @param tableSize 表大小，向上取整为 2 的幂，最大 {@code 2^20}
+     */
+    public StringCanonicalizer(int maxLength, int tableSize) {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("maxLength must not be negative, value : " + maxLength);
+        }
+        if (tableSize <= 0 || tableSize > MAX_TABLE_SIZE) {
+            throw new IllegalArgumentException("tableSize out of range, value : " + tableSize);
+        }
+        int size = tableSize == 1 ? 1 : Integer.highestOneBit(tableSize - 1) << 1;
+        int stripeCount = Math.min(MAX_STRIPES, size);
+        this.maxLength = maxLength;
+        this.stripeBits = Integer.numberOfTrailingZeros(stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(size / stripeCount);
+        }
+    }
+
+    /**
+     * 返回参与规范化的最大字符串长度。
+     *
+     * @return 最大长度
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * 返回表大小（取整后的槽总数）。
+     *
+     * @return 表大小
+     */
+    public int getTableSize() {
+        return stripes.length * stripes[0].table.length;
+    }
+
+    /**
+     * 读取 parser 当前的字符串 token 并返回其规范实例。
+     *
+     * @param parser 位于 {@code VALUE_STRING} 的 Jackson 解析器
+     * @return 字符串值
+     * @throws IOException 读取失败时抛出
+     */
+    public String canonicalize(JsonParser parser) throws IOException {
+        int length = parser.getTextLength();
+        if (length > maxLength) {
+            return parser.getText();
+        }
+        return lookup(parser.getTextCharacters(), parser.getTextOffset(), length);
+    }
+
+    /**
+     * 返回与给定字符串相等的规范实例。
+     *
+     * @param value 字符串，可为 {@code null}
+     * @return 规范实例；超过最大长度或为 {@code null} 时原样返回
+     */
+    public String canonicalize(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        return lookup(value.toCharArray(), 0, value.length());
+    }
+
+    /**
+     * 返回命中统计，{@link CacheStats#getSize()} 为表中当前保存的字符串数量。
+     *
+     * @return 统计快照
+     */
+    public CacheStats stats() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return new CacheStats(hits.sum(), misses.sum(), size);
+    }
+
+    /**
+     * 清空表与统计。
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Arrays.fill(stripe.table, null);
+                stripe.size = 0;
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    private String lookup(char[] chars, int offset, int length) {
+        // 与 String.hashCode() 相同的算法，命中的字符串不会重新计算哈希
+        int h = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            h = 31 * h + chars[i];
+        }
+        int spread = h ^ (h >>> 16);
+        Stripe stripe = stripes[spread & (stripes.length - 1)];
+        int slot = (spread >>> stripeBits) & (stripe.table.length - 1);
+        synchronized (stripe) {
+            String cached = stripe.table[slot];
+            if (cached != null && cached.hashCode() == h && contentEquals(cached, chars, offset, length)) {
+                hits.increment();
+                return cached;
+            }
+            String value = new String(chars, offset, length);
+            if (cached == null) {
+                stripe.size++;
+            }
+            stripe.table[slot] = value;
+            misses.increment();
+            return value;
+        }
+    }
+
+    private static boolean contentEquals(String s, char[] chars, int offset, int length) {
+        if (s.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Stripe {
+
+        final String[] table;
+
+        int size;
+
+        Stripe(int slots) {
+            this.table = new String[slots];
+        }
+    }
+}
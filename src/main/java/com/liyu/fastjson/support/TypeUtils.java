@@ -311,4 +311,23 @@ public final class TypeUtils {
         }
         return (JSONArray) com.liyu.fastjson.JSON.toJSON(value);
     }
+
+    /**
+     * 是否为创建后不会再变化的 JSON 标量：{@code null}、字符串、布尔值、字符、JDK 的装箱数值、
+     * {@link BigDecimal}/{@link BigInteger}，以及解析得到的 {@link LazyValue}/{@link LazyNumber}。
+     * {@link Date}、数组与其他 Java Bean 可能被调用方修改，返回 {@code false}。
+     *
+     * @param value 任意值
+     * @return 不可变的标量返回 {@code true}
+     */
+    public static boolean isImmutableScalar(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean || value instanceof Character
+                || value instanceof LazyValue || value instanceof LazyNumber) {
+            return true;
+        }
+        Class<?> type = value.getClass();
+        // 只接受 JDK 的不可变数值类型，BigDecimal/BigInteger 的子类可能可变
+        return type == Integer.class || type == Long.class || type == Double.class || type == Float.class
+                || type == Short.class || type == Byte.class || type == BigDecimal.class || type == BigInteger.class;
+    }
 }
@@ -0,0 +1,72 @@
+package com.liyu.fastjson.support;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+
+/**
+ * {@link WildcardType} 的简单实现，用于在运行时拼装通配符类型。
+ * <p>
+ * {@code equals}/{@code hashCode} 与 JDK 反射返回的实现保持一致，二者可互相作为缓存键命中。
+ * </p>
+ */
+public final class WildcardTypeImpl implements WildcardType {
+
+    private final Type[] upperBounds;
+    private final Type[] lowerBounds;
+
+    /**
+     * 创建通配符类型。
+     *
+     * @param upperBounds 上界，无显式上界时为 {@code {Object.class}}
+     * @param lowerBounds 下界，可为空数组
+     */
+    public WildcardTypeImpl(Type[] upperBounds, Type[] lowerBounds) {
+        this.upperBounds = upperBounds.clone();
+        this.lowerBounds = lowerBounds.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Type[] getUpperBounds() {
+        return upperBounds.clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Type[] getLowerBounds() {
+        return lowerBounds.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WildcardType)) {
+            return false;
+        }
+        WildcardType that = (WildcardType) o;
+        return Arrays.equals(upperBounds, that.getUpperBounds()) && Arrays.equals(lowerBounds, that.getLowerBounds());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(upperBounds) ^ Arrays.hashCode(lowerBounds);
+    }
+
+    @Override
+    public String toString() {
+        if (lowerBounds.length > 0) {
+            return "? super " + lowerBounds[0].getTypeName();
+        }
+        if (upperBounds.length == 0 || upperBounds[0] == Object.class) {
+            return "?";
+        }
+        return "? extends " + upperBounds[0].getTypeName();
+    }
+}
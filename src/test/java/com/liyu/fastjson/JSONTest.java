@@ -1,12 +1,45 @@
 package com.liyu.fastjson;
 
 import com.liyu.fastjson.annotation.JSONField;
+import com.liyu.fastjson.parser.Feature;
+import com.liyu.fastjson.parser.ParserConfig;
 import com.liyu.fastjson.serializer.SerializerFeature;
+import com.liyu.fastjson.support.CacheStats;
+import com.liyu.fastjson.support.CompactMap;
+import com.liyu.fastjson.support.JacksonSupport;
+import com.liyu.fastjson.support.JavaTypeCache;
+import com.liyu.fastjson.support.JsonArrayIterator;
+import com.liyu.fastjson.support.JsonLinesReader;
+import com.liyu.fastjson.support.ParallelJsonLinesReader;
+import com.liyu.fastjson.support.StringCanonicalizer;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -64,6 +97,51 @@ class JSONTest {
         assertEquals("u2", users.get(1).getUserName());
     }
 
+    @Test
+    void typeReferenceWithActualTypeArguments() {
+        String json = "{\"a\":[{\"id\":1,\"user_name\":\"u1\"}]}";
+        Map<String, List<User>> map = parseMapOfLists(json, User.class);
+        assertEquals("u1", map.get("a").get(0).getUserName());
+
+        Type first = listMapType(User.class);
+        Type second = listMapType(User.class);
+        assertSame(first, second);
+        assertEquals(new TypeReference<Map<String, List<User>>>() {
+        }.getType(), first);
+        assertEquals(first.hashCode(), new TypeReference<Map<String, List<User>>>() {
+        }.getType().hashCode());
+
+        assertEquals(new TypeReference<Map<String, List<? extends User>[]>>() {
+        }.getType(), wildcardArrayType(User.class));
+        assertEquals(new TypeReference<List<? super User>>() {
+        }.getType(), superListType(User.class));
+
+        assertSame(User.class, JavaTypeCache.anchorOf(first));
+        assertSame(User.class, JavaTypeCache.anchorOf(wildcardArrayType(User.class)));
+        assertNull(JavaTypeCache.anchorOf(new TypeReference<Map<String, List<String>>>() {
+        }.getType()).getClassLoader());
+    }
+
+    private static <T> Type superListType(Class<T> clazz) {
+        return new TypeReference<List<? super T>>(clazz) {
+        }.getType();
+    }
+
+    private static <T> Type wildcardArrayType(Class<T> clazz) {
+        return new TypeReference<Map<String, List<? extends T>[]>>(clazz) {
+        }.getType();
+    }
+
+    private static <T> Map<String, List<T>> parseMapOfLists(String json, Class<T> clazz) {
+        return JSON.parseObject(json, new TypeReference<Map<String, List<T>>>(clazz) {
+        });
+    }
+
+    private static <T> Type listMapType(Class<T> clazz) {
+        return new TypeReference<Map<String, List<T>>>(clazz) {
+        }.getType();
+    }
+
     @Test
     void parseArrayToList() {
         String json = "[{\"id\":1,\"user_name\":\"u1\"}]";
@@ -92,6 +170,24 @@ class JSONTest {
         assertEquals("neo", user.getUserName());
     }
 
+    @Test
+    void toJavaObjectBindsFromTree() {
+        JSONObject obj = new JSONObject()
+                .fluentPut("id", new BigDecimal("5"))
+                .fluentPut("user_name", "tree")
+                .fluentPut("createTime", "2020-01-02 03:04:05")
+                .fluentPut("nested", new JSONObject().fluentPut("user_name", "inner"))
+                .fluentPut("count", "12");
+
+        User user = obj.toJavaObject(User.class);
+        assertEquals(5L, user.getId());
+        assertEquals("tree", user.getUserName());
+        assertNotNull(user.getCreateTime());
+        assertEquals("inner", obj.getObject("nested", User.class).getUserName());
+        assertEquals(Integer.valueOf(12), obj.getObject("count", Integer.class));
+        assertEquals("12", new JSONArray().fluentAdd(12).getObject(0, String.class));
+    }
+
     @Test
     void toJavaList() {
         JSONArray array = new JSONArray();
@@ -102,6 +198,651 @@ class JSONTest {
         assertEquals(Arrays.asList("a", "b"), Arrays.asList(users.get(0).getUserName(), users.get(1).getUserName()));
     }
 
+    @Test
+    void toJavaListParallelAndLazyView() {
+        JSONArray array = new JSONArray();
+        for (int i = 0; i < 50; i++) {
+            array.add(new JSONObject().fluentPut("id", i).fluentPut("user_name", "u" + i));
+        }
+        array.add(null);
+
+        int threshold = JSONArray.PARALLEL_CONVERT_THRESHOLD;
+        JSONArray.PARALLEL_CONVERT_THRESHOLD = 10;
+        try {
+            List<User> parallel = array.toJavaList(User.class, true);
+            assertEquals(51, parallel.size());
+            assertEquals("u49", parallel.get(49).getUserName());
+            assertNull(parallel.get(50));
+        } finally {
+            JSONArray.PARALLEL_CONVERT_THRESHOLD = threshold;
+        }
+
+        List<User> view = array.toJavaListView(User.class);
+        assertEquals(51, view.size());
+        User third = view.get(3);
+        assertEquals(3L, third.getId());
+        assertSame(third, view.get(3));
+        assertThrows(UnsupportedOperationException.class, () -> view.add(new User()));
+    }
+
+    @Test
+    void lazyObjectParsesSubtreesOnAccess() {
+        String text = "{\"id\":7,\"user\":{\"user_name\": \"lazy\" , \"tags\":[1, 2]},"
+                + "\"opt\":{\"x\":null},\"list\":[{\"a\":1}]}";
+        JSONObject eager = JSON.parseObject(text);
+        ParserConfig.getGlobalInstance().setLazyObject(true);
+        try {
+            JSONObject obj = JSON.parseObject(text);
+            assertEquals(7L, obj.getLongValue("id"));
+            assertEquals("{\"id\":7,\"user\":{\"user_name\": \"lazy\" , \"tags\":[1, 2]},"
+                    + "\"opt\":{},\"list\":[{\"a\":1}]}", obj.toJSONString());
+            assertTrue(JSON.toJSONString(obj, SerializerFeature.WriteMapNullValue).contains("\"opt\":{\"x\":null}"));
+            assertEquals(JSON.toJSONString(eager, SerializerFeature.PrettyFormat),
+                    JSON.toJSONString(JSON.parseObject(text), SerializerFeature.PrettyFormat));
+
+            JSONObject user = obj.getJSONObject("user");
+            assertEquals("lazy", user.getString("user_name"));
+            assertEquals(Arrays.asList(1, 2), user.getJSONArray("tags"));
+            user.put("user_name", "changed");
+            assertTrue(obj.toJSONString().contains("\"user_name\":\"changed\""));
+            assertEquals("changed", obj.getObject("user", User.class).getUserName());
+
+            assertEquals(eager, JSON.parseObject(text));
+            JSONObject fromBytes = (JSONObject) JSON.parse(text.getBytes(StandardCharsets.UTF_8));
+            assertEquals(1, fromBytes.getJSONArray("list").getJSONObject(0).getIntValue("a"));
+            assertEquals(eager, JSON.parse(text.getBytes(StandardCharsets.UTF_16)));
+            assertEquals(eager, JSON.parse(text.getBytes(Charset.forName("UTF-32LE"))));
+            assertEquals(eager, JSON.parse(("\uFEFF" + text).getBytes(StandardCharsets.UTF_8)));
+            assertEquals("{\"a\":{\"b\":1}}",
+                    JSON.parseObject("{'a':{'b':1}}", Feature.AllowSingleQuotes).toJSONString());
+        } finally {
+            ParserConfig.getGlobalInstance().setLazyObject(false);
+        }
+    }
+
+    @Test
+    void compactObjectKeepsMapSemantics() {
+        for (boolean ordered : new boolean[]{true, false}) {
+            JSONObject obj = new JSONObject(ordered);
+            Map<String, Object> expected = new HashMap<>();
+            for (int i = 0; i < 40; i++) {
+                obj.put("k" + i, i);
+                expected.put("k" + i, i);
+            }
+            for (int i = 0; i < 40; i += 3) {
+                assertEquals(i, obj.remove("k" + i));
+                expected.remove("k" + i);
+            }
+            Iterator<Map.Entry<String, Object>> it = obj.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Object> entry = it.next();
+                if (entry.getKey().endsWith("5")) {
+                    it.remove();
+                    expected.remove(entry.getKey());
+                } else {
+                    entry.setValue(-(Integer) entry.getValue());
+                    expected.put(entry.getKey(), -(Integer) expected.get(entry.getKey()));
+                }
+            }
+            assertEquals(expected, obj);
+            assertEquals(expected.hashCode(), obj.hashCode());
+            assertNull(obj.get("k0"));
+            assertEquals(-1, obj.get("k1"));
+            if (ordered) {
+                assertEquals(Arrays.asList("k1", "k2", "k4", "k7", "k8", "k10"),
+                        new ArrayList<>(obj.keySet()).subList(0, 6));
+            }
+        }
+
+        JSONObject parsed = JSON.parseObject("{\"b\":1,\"a\":2,\"c\":3}");
+        parsed.remove("b");
+        assertEquals("{\"a\":2,\"c\":3}", parsed.toJSONString());
+
+        // 无关的解析特性不影响删除后的字段顺序
+        JSONObject commented = JSON.parseObject("{\"z\":1,\"a\":2,\"m\":3}", Feature.AllowComment);
+        commented.remove("z");
+        commented.put("b", 4);
+        assertEquals(Arrays.asList("a", "m", "b"), new ArrayList<>(commented.keySet()));
+
+        ParserConfig.getGlobalInstance().setUseLinkedHashMap(true);
+        try {
+            assertEquals(parsed, JSON.parseObject("{\"a\":2,\"c\":3}"));
+        } finally {
+            ParserConfig.getGlobalInstance().setUseLinkedHashMap(false);
+        }
+    }
+
+    @Test
+    void sameShapedObjectsShareKeyLayout() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"a\":1,\"b\":2,\"c\":3,"
+                    + "\"d\":4,\"e\":5,\"f\":6,\"g\":7,\"h\":8}");
+        }
+        JSONArray array = JSON.parseArray(json.append(']').toString());
+        JSONObject first = array.getJSONObject(0);
+        JSONObject second = array.getJSONObject(1);
+        assertTrue(((CompactMap) first.getInnerMap()).isSharedLayout());
+        assertEquals(8, second.getIntValue("h"));
+
+        first.put("id", 100);
+        first.put("extra", true);
+        second.put("extra", false);
+        assertTrue(((CompactMap) second.getInnerMap()).isSharedLayout());
+        second.remove("a");
+        assertFalse(((CompactMap) second.getInnerMap()).isSharedLayout());
+
+        assertEquals(100, first.get("id"));
+        assertEquals(true, first.get("extra"));
+        assertEquals(1, first.get("a"));
+        assertNull(second.get("a"));
+        assertEquals(9, second.size());
+        assertEquals("{\"id\":2,\"a\":1,\"b\":2,\"c\":3,\"d\":4,\"e\":5,\"f\":6,\"g\":7,\"h\":8}",
+                array.getJSONObject(2).toJSONString());
+
+        assertEquals("{\"a\":2}", JSON.parseObject("{\"a\":1,\"a\":2}").toJSONString());
+    }
+
+    @Test
+    void numericArraysKeepElementTypes() {
+        JSONArray ints = JSON.parseArray("[1,2,3,-4]");
+        assertArrayEquals(new int[]{1, 2, 3, -4}, ints.toIntArray());
+        assertEquals(-4L, ints.getLongValue(3));
+        assertEquals(Integer.valueOf(2), ints.get(1));
+
+        JSONArray prices = JSON.parseArray("[1.50,0.1,-2.25,100]");
+        assertEquals(new BigDecimal("1.5"), prices.get(0));
+        assertEquals(-2.25, prices.getDoubleValue(2));
+        assertEquals(-2, prices.getIntValue(2));
+        assertEquals(100, prices.getIntValue(3));
+        assertEquals("[1.5,0.1,-2.25,100]", prices.toJSONString());
+
+        JSONArray longs = JSON.parseArray("[10000000000,20000000000]");
+        assertArrayEquals(new long[]{10000000000L, 20000000000L}, longs.toLongArray());
+        longs.add(1);
+        longs.add(1, "x");
+        assertEquals(Arrays.asList(10000000000L, "x", 20000000000L, 1), longs);
+        assertArrayEquals(new double[]{1.5, 0.1, -2.25, 100}, prices.toDoubleArray());
+
+        JSONArray mixed = new JSONArray();
+        mixed.add(7);
+        mixed.set(0, 7L);
+        assertEquals(Long.valueOf(7), mixed.get(0));
+        assertEquals(JSON.parseArray("[3.14159265358979323846]").get(0),
+                new BigDecimal("3.14159265358979323846"));
+    }
+
+    @Test
+    void lazyNumbersDecodeOnRead() {
+        String json = "{\"price\":12.50,\"rate\":-0.0375,\"big\":1234567890.123456789,\"exp\":1.5e3,"
+                + "\"ladder\":[1.10,1.25,1.5],\"qty\":3}";
+        JSONObject eager = JSON.parseObject(json);
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        config.setLazyNumber(true);
+        JSONObject lazy;
+        try {
+            lazy = JSON.parseObject(json);
+        } finally {
+            config.setLazyNumber(false);
+        }
+        assertEquals(12, lazy.getIntValue("price"));
+        assertEquals(-0.0375, lazy.getDoubleValue("rate"));
+        assertEquals(1234567890L, lazy.getLongValue("big"));
+        assertEquals(new BigDecimal("1.5e3"), lazy.getBigDecimal("exp"));
+        assertEquals(new BigDecimal("12.5"), lazy.get("price"));
+        assertArrayEquals(new double[]{1.10, 1.25, 1.5}, lazy.getJSONArray("ladder").toDoubleArray());
+        assertEquals(eager, lazy);
+        assertEquals(eager.toJSONString(), lazy.toJSONString());
+        config.setLazyNumber(true);
+        try {
+            assertEquals(JSON.parse("[1.0,-0.0,0.000,100.0,2.50]"), JSON.parse("[1.0,-0.0,0.000,100.0,2.50]"));
+            assertEquals("[1,0,0,1E+2,2.5]", JSON.toJSONString(JSON.parse("[1.0,-0.0,0.000,100.0,2.50]")));
+            assertEquals("{\"a\":1E+2}", JSON.parseObject("{\"a\":100.0}").toJSONString());
+        } finally {
+            config.setLazyNumber(false);
+        }
+
+        JSONObject ints = JSON.parseObject("{\"a\":1,\"b\":12345678901234567890}", Feature.UseLongForInts);
+        assertEquals(1L, ints.get("a"));
+        assertEquals(new BigInteger("12345678901234567890"), ints.get("b"));
+        assertEquals(BigInteger.ONE,
+                JSON.parseObject("{\"a\":1}", Feature.UseBigIntegerForInts).get("a"));
+
+        int defaults = JSON.DEFAULT_PARSER_FEATURE;
+        JSON.DEFAULT_PARSER_FEATURE = 0;
+        try {
+            assertEquals(0.5, JSON.parseObject("{\"a\":0.5}").get("a"));
+            assertEquals(new BigDecimal("0.5"),
+                    JSON.parseObject("{\"a\":0.5}", Feature.UseBigDecimal).get("a"));
+        } finally {
+            JSON.DEFAULT_PARSER_FEATURE = defaults;
+        }
+    }
+
+    @Test
+    void columnarArrayReadsColumnsAndWritesThroughRows() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 10; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"sku\":\"S").append(i % 2).append("\",\"quantity\":")
+                    .append(i + 1).append(",\"price\":").append(i).append(".50,\"note\":null}");
+        }
+        String text = json.append(']').toString();
+        JSONArray plain = JSON.parseArray(text);
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        config.setColumnarArray(true);
+        JSONArray columnar;
+        try {
+            columnar = JSON.parseArray(text);
+        } finally {
+            config.setColumnarArray(false);
+        }
+        assertEquals(plain, columnar);
+        assertEquals(plain.toJSONString(), columnar.toJSONString());
+        assertEquals(55, columnar.sum("quantity"));
+        assertEquals(0.5, columnar.min("price"));
+        assertEquals(9.5, columnar.max("price"));
+        assertTrue(Double.isNaN(columnar.max("note")));
+        assertArrayEquals(plain.getLongColumn("quantity"), columnar.getLongColumn("quantity"));
+        assertArrayEquals(plain.getDoubleColumn("price"), columnar.getDoubleColumn("price"));
+
+        JSONObject rewritten = columnar.getJSONObject(5);
+        for (int i = 0; i < 1000; i++) {
+            rewritten.put("sku", "v" + i);
+        }
+        assertEquals("v999", columnar.getJSONObject(5).get("sku"));
+        for (int i = 0; i < 10; i++) {
+            columnar.getJSONObject(i).put("sku", "distinct" + i);
+        }
+        assertEquals("distinct5", columnar.getJSONObject(5).get("sku"));
+        assertEquals("distinct9", columnar.getJSONObject(9).get("sku"));
+
+        JSONObject row = columnar.getJSONObject(3);
+        row.put("quantity", 40);
+        row.put("sku", 7);
+        assertEquals(40, columnar.getJSONObject(3).getIntValue("quantity"));
+        assertEquals(7, columnar.getJSONObject(3).get("sku"));
+        assertEquals(91, columnar.sum("quantity"));
+
+        row.put("extra", true);
+        columnar.getJSONObject(4).remove("note");
+        assertEquals(true, columnar.getJSONObject(3).get("extra"));
+        assertEquals(40, row.get("quantity"));
+        assertFalse(columnar.getJSONObject(4).containsKey("note"));
+        assertEquals(91, columnar.sum("quantity"));
+        columnar.add(new JSONObject().fluentPut("quantity", 9));
+        assertEquals(100, columnar.sum("quantity"));
+    }
+
+    @Test
+    void repeatedStringValuesShareInstanceWhenCanonicalized() {
+        StringCanonicalizer strings = new StringCanonicalizer(8, 64);
+        ParserConfig.getGlobalInstance().setStringCanonicalizer(strings);
+        JSONArray tags;
+        try {
+            tags = JSON.parseArray("[{\"channel\":\"web\",\"note\":\"longer than eight\"},"
+                    + "{\"channel\":\"web\",\"note\":\"longer than eight\"},[\"web\"]]");
+        } finally {
+            ParserConfig.getGlobalInstance().setStringCanonicalizer(null);
+        }
+
+        assertSame(tags.getJSONObject(0).getString("channel"), tags.getJSONObject(1).getString("channel"));
+        assertSame(tags.getJSONObject(0).getString("channel"), tags.getJSONArray(2).getString(0));
+        assertNotSame(tags.getJSONObject(0).getString("note"), tags.getJSONObject(1).getString("note"));
+        CacheStats stats = strings.stats();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+        assertEquals(64, strings.getTableSize());
+    }
+
+    @Test
+    void copyOnWriteCloneSharesStructureUntilMutated() {
+        JSONObject template = JSON.parseObject("{\"name\":\"base\",\"limits\":{\"qps\":100,\"burst\":[1,2]},"
+                + "\"rules\":[{\"id\":1},{\"id\":2}]}");
+        // clone() 为深拷贝，之前取得的嵌套引用不会影响克隆体
+        JSONObject fetched = template.getJSONObject("limits");
+        JSONObject independent = template.clone();
+        fetched.put("qps", 1);
+        assertEquals(100, independent.getJSONObject("limits").getIntValue("qps"));
+        fetched.put("qps", 100);
+
+        JSONObject copy = template.copyOnWriteClone();
+
+        copy.put("name", "patched");
+        copy.getJSONObject("limits").put("qps", 200);
+        copy.getJSONObject("limits").getJSONArray("burst").add(3);
+        copy.getJSONArray("rules").getJSONObject(0).put("id", 9);
+        template.getJSONArray("rules").remove(1);
+
+        assertEquals("{\"name\":\"base\",\"limits\":{\"qps\":100,\"burst\":[1,2]},\"rules\":[{\"id\":1}]}",
+                template.toJSONString());
+        assertEquals("{\"name\":\"patched\",\"limits\":{\"qps\":200,\"burst\":[1,2,3]},"
+                + "\"rules\":[{\"id\":9},{\"id\":2}]}", copy.toJSONString());
+
+        JSONObject deep = copy.deepClone(true);
+        assertEquals(copy, deep);
+        assertNotSame(copy.getJSONObject("limits"), deep.getJSONObject("limits"));
+        JSONArray numbers = JSON.parseArray("[1,2,3]").deepClone();
+        assertArrayEquals(new int[]{1, 2, 3}, numbers.toIntArray());
+    }
+
+    @Test
+    void frozenTreeIsImmutableAndCachesSerializedForm() {
+        JSONObject source = JSON.parseObject("{\"name\":\"配置\",\"hosts\":[{\"ip\":\"10.0.0.1\"}],\"ports\":[80,443]}");
+        JSONObject frozen = source.freeze();
+        source.put("name", "changed");
+
+        assertTrue(frozen.isFrozen());
+        assertSame(frozen, frozen.freeze());
+        assertEquals("配置", frozen.getString("name"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.put("name", "x"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getJSONArray("hosts").add(1));
+        assertThrows(UnsupportedOperationException.class,
+                () -> frozen.getJSONArray("hosts").getJSONObject(0).remove("ip"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.entrySet().iterator().next().setValue(1));
+
+        String text = frozen.toJSONString();
+        assertSame(text, frozen.toString());
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), JSON.toJSONBytes(frozen));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSON.writeJSONString(out, frozen);
+        assertEquals(text, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(frozen.hashCode(), frozen.clone().hashCode());
+
+        JSONObject editable = frozen.copyOnWriteClone();
+        editable.getJSONArray("hosts").getJSONObject(0).put("ip", "10.0.0.2");
+        assertEquals("10.0.0.1", frozen.getJSONArray("hosts").getJSONObject(0).getString("ip"));
+        assertFalse(editable.isFrozen());
+
+        JSONObject withPlainMap = new JSONObject();
+        withPlainMap.put("inner", null);
+        withPlainMap.entrySet().iterator().next().setValue(new HashMap<>());
+        JSONObject frozenPlain = withPlainMap.freeze();
+        assertTrue(frozenPlain.getJSONObject("inner").isFrozen());
+        assertThrows(UnsupportedOperationException.class, () -> frozenPlain.getJSONObject("inner").put("k", 1));
+
+        // Bean、数组、日期在冻结时转换为 JSON 值，之后修改原对象不影响缓存
+        User user = new User();
+        user.setUserName("a");
+        int[] counts = {1, 2};
+        Date date = new Date(1000L);
+        JSONObject frozenValues = new JSONObject().fluentPut("user", user).fluentPut("counts", counts)
+                .fluentPut("date", date).freeze();
+        String before = frozenValues.toJSONString();
+        int hash = frozenValues.hashCode();
+        user.setUserName("CHANGED");
+        counts[0] = 9;
+        date.setTime(2000L);
+        assertEquals(before, frozenValues.toJSONString());
+        assertEquals(hash, frozenValues.hashCode());
+        assertFalse(JSON.toJSONString(frozenValues, SerializerFeature.PrettyFormat).contains("CHANGED"));
+        assertTrue(frozenValues.getJSONObject("user").isFrozen());
+        assertEquals("a", frozenValues.getObject("user", User.class).getUserName());
+        assertEquals(1000L, frozenValues.getDate("date").getTime());
+    }
+
+    @Test
+    void incrementalSerializationRegeneratesOnlyChangedLevels() {
+        JSONObject document = JSON.parseObject("{\"id\":1,\"empty\":null,\"items\":[{\"sku\":\"a\\\"b\",\"qty\":[1,2]},"
+                + "{\"sku\":\"c\",\"tags\":[]}],\"meta\":{\"price\":1.50,\"at\":\"2024-01-01\"}}");
+        document.setIncrementalSerialization(true);
+        assertEquals(document.deepClone().toJSONString(), document.toJSONString());
+        assertNotNull(document.serializedLevel());
+        assertNotNull(document.getJSONArray("items").getJSONObject(0).serializedLevel());
+
+        JSONObject item = document.getJSONArray("items").getJSONObject(1);
+        item.put("qty", 3);
+        document.getJSONObject("meta").remove("at");
+        document.put("frozen", new JSONObject().fluentPut("k", "v").freeze());
+        String expected = document.deepClone().toJSONString();
+        assertEquals(expected, document.toJSONString());
+        assertArrayEquals(JSON.toJSONBytes(document.deepClone()), JSON.toJSONBytes(document));
+
+        item.getJSONArray("tags").add("x");
+        assertEquals(document.deepClone().toJSONString(), new String(JSON.toJSONBytes(document),
+                StandardCharsets.UTF_8));
+        assertEquals(JSON.toJSONString(document.deepClone(), SerializerFeature.PrettyFormat),
+                JSON.toJSONString(document, SerializerFeature.PrettyFormat));
+
+        // 经视图写入同样使缓存失效，只读遍历不影响缓存
+        for (Map.Entry<String, Object> entry : document.entrySet()) {
+            if (entry.getKey().equals("id")) {
+                entry.setValue(2);
+            }
+        }
+        assertTrue(document.toJSONString().startsWith("{\"id\":2,"));
+        document.keySet().remove("empty");
+        document.values().remove(document.get("frozen"));
+        assertEquals(document.deepClone().toJSONString(), document.toJSONString());
+
+        Map<String, Object> inner = document.getJSONObject("meta").getInnerMap();
+        document.toJSONString();
+        inner.put("price", 2);
+        assertTrue(document.toJSONString().contains("\"meta\":{\"price\":2}"));
+
+        JSONArray items = document.getJSONArray("items");
+        Iterator<Object> it = items.iterator();
+        it.next();
+        it.remove();
+        assertEquals(document.deepClone().toJSONString(), document.toJSONString());
+        ListIterator<Object> cursor = items.listIterator();
+        cursor.next();
+        cursor.set("first");
+        assertTrue(document.toJSONString().contains("\"items\":[\"first\"]"));
+        List<Object> head = items.subList(0, 1);
+        document.toJSONString();
+        head.set(0, "head");
+        assertTrue(document.toJSONString().contains("\"items\":[\"head\"]"));
+
+        // Java Bean、数组等可变的值每次重新生成
+        User user = new User();
+        user.setUserName("a");
+        int[] counts = {1, 2};
+        JSONObject holder = new JSONObject().fluentPut("user", user).fluentPut("counts", counts);
+        holder.setIncrementalSerialization(true);
+        holder.toJSONString();
+        user.setUserName("CHANGED");
+        counts[1] = 3;
+        assertEquals(holder.deepClone().toJSONString(), holder.toJSONString());
+        assertTrue(holder.toJSONString().contains("\"CHANGED\""));
+        assertTrue(holder.toJSONString().contains("[1,3]"));
+    }
+
+    @Test
+    void parallelJsonLinesKeepOrderAndBoundInFlightChunks() {
+        StringBuilder input = new StringBuilder();
+        int[] offsets = new int[5000];
+        for (int i = 0; i < 5000; i++) {
+            offsets[i] = input.length();
+            input.append(i == 1234 ? "{oops" : "{\"id\":" + i + "}").append('\n');
+        }
+        byte[] bytes = input.toString().getBytes(StandardCharsets.UTF_8);
+        int chunkSize = 256;
+        int maxInFlight = 3;
+
+        ParallelJsonLinesReader<JSONObject> reader = new ParallelJsonLinesReader<>(JSONObject.class);
+        reader.setChunkSize(chunkSize);
+        reader.setMaxInFlight(maxInFlight);
+        List<Long> errors = new CopyOnWriteArrayList<>();
+        reader.setErrorHandler((line, text, error) -> errors.add(line));
+        CountingInputStream counted = new CountingInputStream(bytes);
+        List<Integer> ids = new ArrayList<>();
+        assertEquals(4999, reader.read(counted, o -> {
+            int id = o.getIntValue("id");
+            // 有序交付时读取进度不会超出当前记录所在块之后 maxInFlight 个块
+            assertTrue(counted.read - offsets[id] <= (maxInFlight + 1) * chunkSize);
+            ids.add(id);
+        }));
+        assertEquals(Arrays.asList(1235L), errors);
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i) > ids.get(i - 1));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            reader.setPool(pool);
+            reader.setOrdered(false);
+            AtomicInteger active = new AtomicInteger();
+            AtomicInteger maxActive = new AtomicInteger();
+            LongAdder sum = new LongAdder();
+            reader.read(new ByteArrayInputStream(bytes), o -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                LockSupport.parkNanos(20_000);
+                sum.add(o.getIntValue("id"));
+                active.decrementAndGet();
+            });
+            assertEquals(5000L * 4999 / 2 - 1234, sum.sum());
+            assertTrue(maxActive.get() <= maxInFlight, "active chunks " + maxActive.get());
+        } finally {
+            pool.shutdown();
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(RejectedExecutionException.class,
+                () -> reader.read(new ByteArrayInputStream(bytes), o -> { })));
+
+        assertThrows(JSONException.class, () -> JSON.readLinesParallel(
+                new ByteArrayInputStream(bytes), User.class, true, u -> { }));
+    }
+
+    @Test
+    void jsonLinesRoundTripSkipsMalformedLines() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JSONLinesWriter writer = new JSONLinesWriter(out, 2, 1 << 20)) {
+            writer.write(new JSONObject().fluentPut("id", 1));
+            assertEquals(0, out.size());
+            writer.write(new JSONObject().fluentPut("id", 2));
+            assertTrue(out.size() > 0);
+            writer.write(new JSONObject().fluentPut("id", 3));
+            assertEquals(3, writer.getRecordCount());
+        }
+        assertEquals("{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        // 序列化失败的记录不留下部分输出，之后的记录照常写出
+        ByteArrayOutputStream partial = new ByteArrayOutputStream();
+        try (JSONLinesWriter writer = new JSONLinesWriter(partial, 1, 1 << 20)) {
+            writer.write(new JSONObject().fluentPut("k", 1));
+            assertThrows(JSONException.class, () -> writer.write(new FailingBean()));
+            writer.write(new JSONObject().fluentPut("k", 2));
+            assertEquals(2, writer.getRecordCount());
+        }
+        assertEquals("{\"k\":1}\n{\"k\":2}\n", new String(partial.toByteArray(), StandardCharsets.UTF_8));
+
+        String input = "{\"id\":1,\"user_name\":\"a\"}\r\n\n{broken\n{\"id\":2} trailing\n{\"id\":3}";
+        List<Long> errors = new ArrayList<>();
+        try (JsonLinesReader<User> users = JSON.readLines(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), User.class,
+                (line, text, error) -> errors.add(line))) {
+            assertEquals("a", users.next().getUserName());
+            assertEquals(3L, users.next().getId());
+            assertFalse(users.hasNext());
+        }
+        assertEquals(Arrays.asList(3L, 4L), errors);
+
+        JsonLinesReader<JSONObject> strict = JSON.readLines(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), JSONObject.class);
+        assertEquals(1, strict.next().getIntValue("id"));
+        assertThrows(JSONException.class, strict::next);
+        assertEquals(3, strict.getLineNumber());
+    }
+
+    @Test
+    void iterateArrayBindsOneElementAtATime() {
+        byte[] json = "[{\"id\":1,\"user_name\":\"a\"},null,{\"id\":2,\"user_name\":\"b\"}]".getBytes(StandardCharsets.UTF_8);
+        try (JsonArrayIterator<User> users = JSON.iterateArray(new ByteArrayInputStream(json), User.class)) {
+            assertEquals("a", users.next().getUserName());
+            assertNull(users.next());
+            assertEquals(2L, users.next().getId());
+            assertFalse(users.hasNext());
+        }
+
+        try (Stream<JSONObject> objects = JSON.iterateArray(json, JSONObject.class).stream()) {
+            assertEquals(3L, objects.map(o -> o == null ? 0 : o.getIntValue("id")).reduce(0, Integer::sum).longValue());
+        }
+
+        StringReader reader = new StringReader("[[1],[2]]");
+        JsonArrayIterator<JSONObject> partial = JSON.iterateArray(reader, JSONObject.class);
+        assertThrows(JSONException.class, partial::next);
+        assertFalse(partial.hasNext());
+        assertThrows(IOException.class, reader::read);
+
+        assertFalse(JSON.iterateArray(new byte[0], Object.class).hasNext());
+        assertThrows(JSONException.class, () -> JSON.iterateArray("{}".getBytes(StandardCharsets.UTF_8), Object.class));
+    }
+
+    @Test
+    void nestedConversionIsMemoizedWhenEnabled() {
+        JSONObject log = JSON.parseObject("{\"payload\":\"{\\\"id\\\":1}\",\"items\":\" [1,2]\",\"msg\":\"plain\"}");
+        assertNotSame(log.getJSONObject("payload"), log.getJSONObject("payload"));
+
+        // 只作用于启用的对象，其他对象的序列化结果不变
+        JSONObject other = JSON.parseObject("{\"payload\":\"{}\"}");
+        log.setMemoizeNested(true);
+        JSONObject payload = log.getJSONObject("payload");
+        assertSame(payload, log.getJSONObject("payload"));
+        assertSame(payload, log.get("payload"));
+        assertTrue(payload.isMemoizeNested());
+        assertSame(log.getJSONArray("items"), log.getJSONArray("items"));
+        assertEquals("plain", log.get("msg"));
+        other.getJSONObject("payload");
+        assertEquals("{\"payload\":\"{}\"}", other.toJSONString());
+
+        JSONObject clone = log.copyOnWriteClone();
+        clone.setMemoizeNested(true);
+        clone.put("raw", "[3]");
+        clone.getJSONArray("raw").add(4);
+        assertFalse(log.containsKey("raw"));
+        assertEquals("[3,4]", clone.getJSONArray("raw").toJSONString());
+
+        JSONObject frozen = JSON.parseObject("{\"p\":\"{}\"}").freeze();
+        assertThrows(UnsupportedOperationException.class, () -> frozen.setMemoizeNested(true));
+        assertNotSame(frozen.getJSONObject("p"), frozen.getJSONObject("p"));
+        assertEquals("{}", frozen.get("p"));
+        assertEquals("{\"payload\":{\"id\":1},\"items\":[1,2],\"msg\":\"plain\"}", log.toJSONString());
+    }
+
+    @Test
+    void wrappedMapIsZeroCopyView() {
+        Map<String, Object> inner = new HashMap<>();
+        inner.put("n", 1);
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("inner", inner);
+        source.put("tags", new ArrayList<>(Arrays.asList("a", "b")));
+
+        JSONObject view = JSONObject.wrap(source);
+        view.getJSONObject("inner").put("n", 2);
+        view.getJSONArray("tags").add("c");
+        view.put("k", "v");
+        assertEquals(2, inner.get("n"));
+        assertEquals(3, ((List<?>) source.get("tags")).size());
+        assertEquals("v", source.get("k"));
+        assertEquals("{\"inner\":{\"n\":2},\"tags\":[\"a\",\"b\",\"c\"],\"k\":\"v\"}", view.toJSONString());
+
+        JSONObject copy = JSONObject.wrap(source, true);
+        copy.getJSONObject("inner").put("n", 3);
+        copy.remove("k");
+        assertEquals(2, inner.get("n"));
+        assertEquals("v", source.get("k"));
+        assertEquals(3, copy.getJSONObject("inner").getIntValue("n"));
+
+        JSONObject deep = view.deepClone();
+        deep.getJSONObject("inner").put("n", 4);
+        assertEquals(2, inner.get("n"));
+
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        config.setWrapCollections(true);
+        try {
+            JSONObject converted = (JSONObject) JSON.toJSON(source);
+            converted.getJSONObject("inner").put("n", 5);
+            assertEquals(5, inner.get("n"));
+            assertTrue(new JSONObject(source).getJSONArray("tags").remove("c"));
+            assertEquals(2, ((List<?>) source.get("tags")).size());
+        } finally {
+            config.setWrapCollections(false);
+        }
+        JSONObject converted = (JSONObject) JSON.toJSON(source);
+        converted.getJSONObject("inner").put("n", 6);
+        assertEquals(5, inner.get("n"));
+    }
+
     @Test
     void writeMapNullValue() {
         JSONObject obj = new JSONObject();
@@ -111,6 +852,52 @@ class JSONTest {
         assertTrue(json.contains("\"name\":null"));
     }
 
+    @Test
+    void serializerFeatureCombinations() {
+        JSONObject obj = new JSONObject().fluentPut("b", 1).fluentPut("a", null);
+
+        assertEquals("{\"b\":1}", JSON.toJSONString(obj));
+        assertEquals("{\"a\":null,\"b\":1}",
+                JSON.toJSONString(obj, SerializerFeature.WriteMapNullValue, SerializerFeature.MapSortField));
+        assertTrue(JSON.toJSONString(obj, SerializerFeature.WriteMapNullValue, SerializerFeature.PrettyFormat)
+                .contains("\"a\" : null"));
+        assertSame(JacksonSupport.writer(SerializerFeature.WriteMapNullValue),
+                JacksonSupport.writer(SerializerFeature.WriteMapNullValue));
+    }
+
+    @Test
+    void toJSONStringWithDateFormatReusesWriters() {
+        JSONObject obj = new JSONObject().fluentPut("t", new Date(0L)).fluentPut("n", null);
+        CacheStats before = JacksonSupport.dateFormatWriterStats();
+
+        String first = JSON.toJSONStringWithDateFormat(obj, "yyyy", SerializerFeature.WriteMapNullValue);
+        String second = JSON.toJSONStringWithDateFormat(obj, "yyyy", SerializerFeature.WriteMapNullValue);
+
+        assertEquals(first, second);
+        assertTrue(first.matches("\\{\"t\":\"19(69|70)\",\"n\":null}"), first);
+        CacheStats after = JacksonSupport.dateFormatWriterStats();
+        assertTrue(after.getHitCount() > before.getHitCount());
+    }
+
+    @Test
+    void toJSONBytesWithCharset() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            text.append("中文😀");
+        }
+        JSONObject obj = new JSONObject().fluentPut("v", text.toString()).fluentPut("n", 1);
+        String expected = JSON.toJSONString(obj);
+
+        for (Charset charset : Arrays.asList(Charset.forName("GBK"),
+                StandardCharsets.UTF_16, StandardCharsets.ISO_8859_1)) {
+            byte[] bytes = JSON.toJSONBytes(obj, new SerializerFeature[0], charset);
+            assertArrayEquals(expected.getBytes(charset), bytes, charset.name());
+        }
+        byte[] utf8 = JSON.toJSONBytes(obj, new SerializerFeature[0], StandardCharsets.UTF_8);
+        assertArrayEquals(JSON.toJSONBytes(obj), utf8);
+        assertEquals(obj, JSON.parseObject(new String(utf8, StandardCharsets.UTF_8)));
+    }
+
     @Test
     void isValidChecks() {
         assertTrue(JSON.isValid("{\"a\":1}"));
@@ -120,6 +907,20 @@ class JSONTest {
         assertFalse(JSON.isValid("{invalid}"));
     }
 
+    @Test
+    void isValidStreamsBytesAndInputStreams() {
+        byte[] bytes = "[{\"a\":\"x\"},2,null]".getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(JSON.isValid(bytes));
+        assertTrue(JSON.isValidArray(new ByteArrayInputStream(bytes)));
+        assertFalse(JSON.isValidObject(bytes));
+        assertFalse(JSON.isValidObject(new ByteArrayInputStream(bytes)));
+        assertTrue(JSON.isValid(" 12 "));
+        assertFalse(JSON.isValid("{} {}"));
+        assertFalse(JSON.isValidArray("[1,2"));
+        assertFalse(JSON.isValid("   "));
+    }
+
     @Test
     void toJSONConvertsMapAndCollection() {
         JSONObject obj = (JSONObject) JSON.toJSON(new java.util.HashMap<String, Object>() {{
@@ -131,6 +932,95 @@ class JSONTest {
         assertEquals(2, array.size());
     }
 
+    @Test
+    void parseKeepsNumberTypesAndNestedContainers() {
+        JSONObject obj = JSON.parseObject("{\"i\":1,\"l\":12345678901,\"b\":123456789012345678901,"
+                + "\"d\":1.50,\"n\":null,\"arr\":[{\"k\":[]},{}],\"dup\":1,\"dup\":2}");
+
+        assertEquals(Integer.valueOf(1), obj.get("i"));
+        assertEquals(Long.valueOf(12345678901L), obj.get("l"));
+        assertEquals(new BigInteger("123456789012345678901"), obj.get("b"));
+        // 小数与基于 JsonNode 的旧实现一致：去掉末尾的 0，零统一为 0
+        assertEquals(new BigDecimal("1.5"), obj.get("d"));
+        assertEquals("{\"b\":2.5}", JSON.toJSONString(JSON.parse("{\"b\":2.50}")));
+        assertEquals("[1,0,0,1E+2]", JSON.toJSONString(JSON.parse("[1.0,-0.0,0.000,100.0]")));
+        assertTrue(obj.containsKey("n"));
+        assertEquals(0, obj.getJSONArray("arr").getJSONObject(0).getJSONArray("k").size());
+        assertEquals(2, obj.getIntValue("dup"));
+        assertEquals(Arrays.asList("i", "l", "b", "d", "n", "arr", "dup"), new ArrayList<>(obj.keySet()));
+        assertEquals("[1,\"a\"]", JSON.parse("[1,\"a\"]").toString());
+        assertNull(JSON.parse("  "));
+        assertThrows(JSONException.class, () -> JSON.parseObject("[1]"));
+    }
+
+    @Test
+    void parseBytesWithoutDecodingToString() {
+        byte[] utf8 = "xx{\"id\":7,\"user_name\":\"字节\"}yy".getBytes(StandardCharsets.UTF_8);
+        int length = utf8.length - 4;
+
+        User user = JSON.parseObject(utf8, 2, length, User.class);
+        assertEquals("字节", user.getUserName());
+        assertEquals(7, ((JSONObject) JSON.parse(utf8, 2, length)).getIntValue("id"));
+
+        byte[] utf16 = "[{\"id\":1,\"user_name\":\"u\"}]".getBytes(StandardCharsets.UTF_16);
+        assertEquals("u", JSON.parseArray(utf16, User.class).get(0).getUserName());
+        assertEquals(1, ((JSONArray) JSON.parse(utf16)).size());
+    }
+
+    @Test
+    void beanFieldOfJSONObjectType() {
+        Holder holder = JSON.parseObject("{\"data\":{\"a\":[1,2]},\"list\":[{\"x\":1}]}", Holder.class);
+
+        assertEquals(2, holder.getData().getJSONArray("a").size());
+        assertEquals(1, holder.getList().getJSONObject(0).getIntValue("x"));
+    }
+
+    @Test
+    void parseWithFeatures() {
+        String json = "{'id':3,/*c*/'user_name':'x','unknown':1}";
+        int features = Feature.of(Feature.AllowSingleQuotes, Feature.AllowComment, Feature.IgnoreNotMatch);
+
+        User user = JSON.parseObject(json, User.class, features);
+        assertEquals("x", user.getUserName());
+        assertEquals(3, ((JSONObject) JSON.parse(json, features)).getIntValue("id"));
+        assertEquals("x", JSON.parseObject(json, Feature.AllowSingleQuotes, Feature.AllowComment).getString("user_name"));
+        assertThrows(JSONException.class, () -> JSON.parseObject(json, User.class,
+                Feature.AllowSingleQuotes, Feature.AllowComment));
+        assertThrows(JSONException.class, () -> JSON.parseObject(json));
+    }
+
+    public static class Holder {
+        private JSONObject data;
+        private JSONArray list;
+
+        public JSONObject getData() {
+            return data;
+        }
+
+        public void setData(JSONObject data) {
+            this.data = data;
+        }
+
+        public JSONArray getList() {
+            return list;
+        }
+
+        public void setList(JSONArray list) {
+            this.list = list;
+        }
+    }
+
+    public static class FailingBean {
+
+        public int getA() {
+            return 1;
+        }
+
+        public String getB() {
+            throw new IllegalStateException("broken getter");
+        }
+    }
+
     public static class User {
         private Long id;
 
@@ -163,4 +1053,22 @@ class JSONTest {
             this.createTime = createTime;
         }
     }
+
+    private static final class CountingInputStream extends ByteArrayInputStream {
+
+        volatile int read;
+
+        CountingInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                read += n;
+            }
+            return n;
+        }
+    }
 }
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.liyu.fastjson.annotation.JSONField;
+import com.liyu.fastjson.parser.ParserConfig;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -153,6 +154,48 @@ class JsonPerformanceTest {
         assertTrue(iterations > 0);
     }
 
+    @Test
+    void compareJSONObjectFootprint() {
+        int count = 100_000;
+        ParserConfig config = ParserConfig.getGlobalInstance();
+        config.setUseLinkedHashMap(true);
+        long legacy;
+        try {
+            legacy = retainedBytesPerObject(count);
+        } finally {
+            config.setUseLinkedHashMap(false);
+        }
+        long compact = retainedBytesPerObject(count);
+
+        System.out.println();
+        System.out.println("======== JSONObject 内存占用（6 个字段，含字段值） ========");
+        System.out.printf(Locale.ROOT, "LinkedHashMap: %d bytes/object%n", legacy);
+        System.out.printf(Locale.ROOT, "CompactMap   : %d bytes/object%n", compact);
+        System.out.println("（基于 GC 后的堆占用差值估算，System.gc() 只是提示，结果仅供参考）");
+        System.out.println("========================================================");
+        System.out.println();
+    }
+
+    private static long retainedBytesPerObject(int count) {
+        String json = "{\"id\":1,\"name\":\"n\",\"price\":2.5,\"paid\":true,\"sku\":\"s\",\"qty\":3}";
+        JSONObject[] objects = new JSONObject[count];
+        long before = usedMemory();
+        for (int i = 0; i < count; i++) {
+            objects[i] = JSON.parseObject(json);
+        }
+        long after = usedMemory();
+        assertEquals(count, objects.length);
+        return (after - before) / count;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
     private static void printHeader() {
         System.out.printf(Locale.ROOT, "%-26s %12s %12s %10s %10s%n",
                 "场景", "Jackson", "Compat", "比值", "Ops/s");